@@ -1,52 +0,0 @@
-class Move {
-    public Position from, to;
-    public Piece capturedPiece;
-    public boolean isEnPassant;
-    public boolean isCastling;
-    public PieceType promotionPiece;
-    public Position prevEnPassantTarget;
-    public boolean prevFromMoved;
-    public boolean prevToMoved;
-    public Piece promotedPiece; 
-    
-    public Move(Position from, Position to) {
-        this.from = from;
-        this.to = to;
-    }
-    
-    public Move(Position from, Position to, PieceType promotionPiece) {
-        this.from = from;
-        this.to = to;
-        this.promotionPiece = promotionPiece;
-        this.capturedPiece = null;
-        this.isEnPassant = false;
-        this.isCastling = false;
-        this.prevEnPassantTarget = null;
-    }
-    
-    public Move(String fromNotation, String toNotation) {
-        this.from = new Position(fromNotation);
-        this.to = new Position(toNotation);
-    }
-    
-    @Override
-    public String toString() {
-        return from.toNotation() + "-" + to.toNotation();
-    }
-    
-    public String toUCI() {
-        String uciMove = from.toNotation() + to.toNotation();
-        
-        // Add promotion piece if applicable
-        if (promotionPiece != null) {
-            switch (promotionPiece) {
-                case QUEEN: uciMove += "q"; break;
-                case ROOK: uciMove += "r"; break;
-                case BISHOP: uciMove += "b"; break;
-                case KNIGHT: uciMove += "n"; break;
-            }
-        }
-        
-        return uciMove;
-    }
-}
\ No newline at end of file
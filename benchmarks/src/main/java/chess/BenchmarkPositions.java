@@ -0,0 +1,25 @@
+package chess;
+
+// The six perft positions from the chessprogramming wiki, by the names used as
+// @Param values in the benchmarks
+final class BenchmarkPositions {
+    static final String[] NAMES = {"startpos", "kiwipete", "position3", "position4", "position5", "position6"};
+    static final String[] FENS = {
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+    };
+
+    private BenchmarkPositions() {
+    }
+
+    static String fen(String name) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(name)) return FENS[i];
+        }
+        throw new IllegalArgumentException("Unknown position " + name);
+    }
+}
@@ -0,0 +1,80 @@
+package chess;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The board's hot paths, one call per operation: legal move generation (the List
+// API and the int[] one search uses), a makeMove/undoMove pair, check and attack
+// tests, and FEN parsing. Moves and squares are cycled so every call sees a
+// different one.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({"startpos", "kiwipete", "position3", "position4", "position5", "position6"})
+    public String position;
+
+    private String fen;
+    private ChessBoard board;
+    private final int[] moves = new int[ChessBoard.MAX_MOVES];
+    private final int[] legal = new int[ChessBoard.MAX_MOVES];
+    private int legalCount;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        fen = BenchmarkPositions.fen(position);
+        board = new ChessBoard();
+        board.setFromFEN(fen);
+        legalCount = board.generateLegalMoves(board.getSideToMove(), legal);
+    }
+
+    @Benchmark
+    public List<Move> getAllLegalMoves() {
+        return board.getAllLegalMoves(board.getSideToMove());
+    }
+
+    @Benchmark
+    public int generateLegalMoves() {
+        return board.generateLegalMoves(board.getSideToMove(), moves);
+    }
+
+    @Benchmark
+    public long makeUndoMove() {
+        int move = legal[next++ % legalCount];
+        board.makeMove(move);
+        long key = board.getZobristKey();
+        board.undoMove();
+        return key;
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return board.isInCheck(board.getSideToMove());
+    }
+
+    @Benchmark
+    public boolean isSquareUnderAttack() {
+        return board.isSquareUnderAttack(next++ & 63, board.getSideToMove());
+    }
+
+    @Benchmark
+    public long setFromFEN() {
+        board.setFromFEN(fen);
+        return board.getZobristKey();
+    }
+}
@@ -0,0 +1,43 @@
+package chess;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Plain ChessBoard.perft, every leaf made and unmade, over the standard positions.
+// Depth 5 runs for seconds per operation on the larger trees, so iterations are few.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+    @Param({"startpos", "kiwipete", "position3", "position4", "position5", "position6"})
+    public String position;
+
+    @Param({"3", "4", "5"})
+    public int depth;
+
+    private ChessBoard board;
+
+    @Setup
+    public void setUp() {
+        board = new ChessBoard();
+        board.setFromFEN(BenchmarkPositions.fen(position));
+    }
+
+    @Benchmark
+    public long perft() {
+        return board.perft(board.getSideToMove(), depth);
+    }
+}
@@ -0,0 +1,613 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Principal variation search (negamax alpha-beta) with iterative deepening,
+// aspiration windows, a triangular PV table and the shared transposition table.
+// Null-move pruning, late-move reductions and (reverse) futility pruning cut the
+// tree down; each can be switched off through SearchOptions. Moves come from a
+// staged MovePicker ordered by the hash move, MVV-LVA, killers and history, and
+// leaf nodes are resolved by a quiescence search over captures.
+//
+// With SearchOptions.threads > 1 the search runs Lazy SMP: helper engines search
+// their own copies of the board on separate threads, sharing nothing but the
+// transposition table, and skip alternating depths so they stay spread over
+// several iterations. Only the main engine reports and picks the move.
+//
+// MultiPV runs one aspiration search per slot at each depth, each excluding the
+// root moves of the slots before it, so slot k finds the k-th best move. The
+// slots share the transposition table and the move ordering tables, which makes
+// the later ones much cheaper than a fresh search.
+class AlphaBetaEngine implements SearchEngine {
+    public static final int INFINITY = 32000;
+    public static final int MATE = 31000;
+    public static final int MAX_DEPTH = 64;
+    public static final int MAX_MULTI_PV = 256;
+    static final int MATE_BOUND = MATE - ChessBoard.MAX_PLY; // scores beyond this are forced mates
+
+    private static final int ASPIRATION_WINDOW = 50;
+    private static final int STOP_CHECK_INTERVAL = 128; // nodes, a power of two; well under a millisecond
+    private static final int HISTORY_MAX = 1 << 20;
+    // Quiescence delta pruning: a capture that can't lift the stand-pat score to
+    // within this margin of alpha is skipped
+    private static final int DELTA_MARGIN = 200;
+
+    // Selective search margins and limits
+    private static final int REVERSE_FUTILITY_DEPTH = 6;
+    private static final int REVERSE_FUTILITY_MARGIN = 90; // per ply of depth
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int FUTILITY_DEPTH = 3;
+    private static final int[] FUTILITY_MARGIN = {0, 150, 300, 500}; // by depth
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_MIN_MOVES = 3; // moves searched before reductions start
+    private static final int LMR_MAX_MOVES = 64;
+    // Reduction by depth and move number, growing with the log of both
+    private static final int[][] LMR_TABLE = new int[MAX_DEPTH][LMR_MAX_MOVES];
+
+    // Depth staggering for helper threads: helper i skips depth d when
+    // ((d + SKIP_PHASE[i]) / SKIP_SIZE[i]) is odd
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    static {
+        for (int depth = 1; depth < MAX_DEPTH; depth++) {
+            for (int moves = 1; moves < LMR_MAX_MOVES; moves++) {
+                LMR_TABLE[depth][moves] = (int) (0.75 + Math.log(depth) * Math.log(moves) / 2.25);
+            }
+        }
+    }
+
+    private final TranspositionTable transpositionTable;
+    private final SearchOptions options;
+    private final MovePicker[] pickers = new MovePicker[ChessBoard.MAX_PLY];
+    // Two quiet moves per ply that recently caused a beta cutoff in a sibling node
+    private final int[][] killers = new int[ChessBoard.MAX_PLY][2];
+    // Butterfly history: [color * 64 + from][to], bumped by depth squared on quiet cutoffs
+    private final int[][] history = new int[128][64];
+    // pvTable[ply] holds the principal variation found from ply onwards
+    private final int[][] pvTable = new int[ChessBoard.MAX_PLY][ChessBoard.MAX_PLY];
+    private final int[] pvLength = new int[ChessBoard.MAX_PLY];
+
+    private final int threadIndex; // 0 for the main engine, 1.. for helpers
+    private AlphaBetaEngine[] helpers = new AlphaBetaEngine[0];
+    private Thread[] helperThreads = new Thread[0];
+    // A search ends when the caller sets stopSignal or, for helpers, when the main
+    // engine sets stopped. Both are polled every STOP_CHECK_INTERVAL nodes and turn
+    // into aborted, which unwinds the search.
+    private AtomicBoolean stopSignal;
+    private volatile boolean stopped;
+    private boolean aborted;
+    private TimeManager timeManager; // main engine only; its hard limit is checked with the stop flags
+    private long nodeLimit; // main engine only: all threads' nodes together, 0 for no limit
+
+    private ChessBoard board;
+    private long nodes; // read by the main thread while helpers search, for reports and the node limit
+    // Move ordering quality: how often the first move searched was the one that cut off
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private long rootBestNodes; // nodes spent below the current best root move
+    private int completedDepth;
+    private int completedScore; // score of the best move at completedDepth
+    private int ponderMove; // second move of the last completed principal variation
+
+    // Root move filter: only searchMoves (all when null), minus the first excludedCount
+    // entries of excluded, which hold the moves of earlier MultiPV slots
+    private int[] searchMoves;
+    private final int[] excluded = new int[MAX_MULTI_PV];
+    private int excludedCount;
+    // Tried first at the root in place of the hash move, which belongs to an earlier slot
+    private int rootMoveHint;
+
+    public AlphaBetaEngine(TranspositionTable transpositionTable, SearchOptions options) {
+        this(transpositionTable, options, 0);
+    }
+
+    private AlphaBetaEngine(TranspositionTable transpositionTable, SearchOptions options, int threadIndex) {
+        this.transpositionTable = transpositionTable;
+        this.options = options;
+        this.threadIndex = threadIndex;
+        for (int i = 0; i < pickers.length; i++) {
+            pickers[i] = new MovePicker();
+        }
+    }
+
+    @Override
+    public Move getBestMove(ChessBoard board, Color color, SearchLimits limits) {
+        transpositionTable.newSearch();
+        stopSignal = limits.stop;
+        stopped = false;
+        nodeLimit = limits.nodes;
+        int[] rootMoves = new int[ChessBoard.MAX_MOVES];
+        int rootCount = board.generateLegalMoves(board.getSideToMove(), rootMoves);
+        searchMoves = limits.searchMoves;
+        if (searchMoves != null) {
+            rootCount = searchMoves.length;
+            System.arraycopy(searchMoves, 0, rootMoves, 0, rootCount);
+        }
+        timeManager = new TimeManager(limits, color, options.moveOverhead, rootCount == 1);
+        long start = System.nanoTime();
+        startHelpers(board, start);
+
+        int slots = Math.max(1, Math.min(Math.min(options.multiPV, MAX_MULTI_PV), rootCount));
+        int bestMove = iterate(board, Math.min(Math.max(1, limits.depth), MAX_DEPTH), start, slots);
+        if (bestMove == 0 && aborted && rootCount > 0) {
+            // Stopped before the first iteration finished: any legal move beats none
+            bestMove = rootMoves[0];
+        }
+
+        stopHelpers();
+        if (options.printInfo && cutoffs > 0) {
+            UCIOutput.info(String.format("info string first-move cutoff rate %.1f%% (%d cutoffs)",
+                100.0 * firstMoveCutoffs / cutoffs, cutoffs));
+        }
+        timeManager.report("depth " + completedDepth, options.printInfo, options.timeLog);
+        timeManager = null;
+        if (bestMove != 0 && ponderMove == 0) ponderMove = probeReply(board, bestMove);
+        return bestMove == 0 ? null : new Move(bestMove);
+    }
+
+    @Override
+    public Move getPonderMove() {
+        return ponderMove == 0 ? null : new Move(ponderMove);
+    }
+
+    // The hash move after move, when the principal variation was cut short by a table hit
+    private int probeReply(ChessBoard board, int move) {
+        board.makeMove(move);
+        long entry = transpositionTable.probe(board.getZobristKey());
+        int reply = entry != 0 ? TranspositionTable.move(entry) : 0;
+        if (reply != 0 && !board.isLegal(reply)) reply = 0;
+        board.undoMove();
+        return reply;
+    }
+
+    // Iterative deepening up to maxDepth over the given number of MultiPV slots; returns
+    // the best move of the last completed iteration. The main engine also stops when the
+    // time manager says so.
+    private int iterate(ChessBoard board, int maxDepth, long start, int slots) {
+        this.board = board;
+        aborted = false;
+        excludedCount = 0;
+        completedDepth = 0;
+        completedScore = 0;
+        ponderMove = 0;
+        nodes = 0;
+        cutoffs = 0;
+        firstMoveCutoffs = 0;
+        clearOrdering();
+
+        // Per slot: score and principal variation of the last completed iteration
+        int[] scores = new int[slots];
+        int[][] pvs = new int[slots][];
+        int bestMove = 0;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            if (threadIndex > 0 && depth > 1) {
+                int i = (threadIndex - 1) % SKIP_SIZE.length;
+                if (((depth + SKIP_PHASE[i]) / SKIP_SIZE[i]) % 2 != 0) continue;
+            }
+            long iterationStart = nodes;
+            double bestMoveShare = 0;
+            int completedSlots = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                rootMoveHint = slot > 0 && pvs[slot] != null ? pvs[slot][0] : 0;
+                scores[slot] = aspirationSearch(depth, scores[slot]);
+                if (aborted || pvLength[0] == 0) break; // pvLength is 0 without legal moves at the root
+                pvs[slot] = Arrays.copyOf(pvTable[0], pvLength[0]);
+                excluded[excludedCount++] = pvTable[0][0];
+                if (slot == 0) bestMoveShare = (double) rootBestNodes / Math.max(1, nodes - iterationStart);
+                completedSlots++;
+            }
+            excludedCount = 0;
+            rootMoveHint = 0;
+            if (completedSlots < slots) break;
+            if (slots > 1) sortSlots(scores, pvs);
+
+            bestMove = pvs[0][0];
+            ponderMove = pvs[0].length > 1 ? pvs[0][1] : 0;
+            completedDepth = depth;
+            completedScore = scores[0];
+            if (threadIndex == 0) {
+                if (options.printInfo) {
+                    for (int slot = 0; slot < slots; slot++) {
+                        printInfo(depth, slots > 1 ? slot + 1 : 0, scores[slot], pvs[slot], start);
+                    }
+                }
+                if (timeManager.iterationDone(depth, bestMove, scores[0], bestMoveShare)) break;
+            }
+        }
+        return bestMove;
+    }
+
+    // Helpers search board copies until the main engine finishes, to full depth
+    // since they are stopped anyway. They keep to searchmoves but search a single PV.
+    private void startHelpers(ChessBoard board, long start) {
+        int count = Math.max(1, options.threads) - 1;
+        if (helpers.length != count) {
+            helpers = new AlphaBetaEngine[count];
+            for (int i = 0; i < count; i++) {
+                helpers[i] = new AlphaBetaEngine(transpositionTable, options, i + 1);
+            }
+        }
+        helperThreads = new Thread[count];
+        for (int i = 0; i < count; i++) {
+            AlphaBetaEngine helper = helpers[i];
+            ChessBoard copy = new ChessBoard(board);
+            helper.stopSignal = stopSignal;
+            helper.stopped = false;
+            helper.searchMoves = searchMoves;
+            helperThreads[i] = new Thread(() -> helper.iterate(copy, MAX_DEPTH, start, 1), "search-helper-" + (i + 1));
+            helperThreads[i].setDaemon(true);
+            helperThreads[i].start();
+        }
+    }
+
+    private void stopHelpers() {
+        for (AlphaBetaEngine helper : helpers) {
+            helper.stopped = true;
+        }
+        for (Thread thread : helperThreads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        helperThreads = new Thread[0];
+    }
+
+    // Nodes searched by all threads in the current or last search
+    public long getNodes() {
+        long total = nodes;
+        for (AlphaBetaEngine helper : helpers) {
+            total += helper.nodes;
+        }
+        return total;
+    }
+
+    // Score of the last search's best move, from the side to move's point of view
+    public int getScore() {
+        return completedScore;
+    }
+
+    // Fraction of beta cutoffs in the last search that happened on the first move tried
+    public double getFirstMoveCutoffRate() {
+        return cutoffs == 0 ? 0.0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    // Killers are position specific and dropped; history is aged so it still guides the next search
+    private void clearOrdering() {
+        for (int[] pair : killers) {
+            pair[0] = 0;
+            pair[1] = 0;
+        }
+        for (int[] row : history) {
+            for (int to = 0; to < row.length; to++) {
+                row[to] /= 8;
+            }
+        }
+    }
+
+    // Searches a narrow window around the previous score and widens the side that fails
+    private int aspirationSearch(int depth, int previous) {
+        int delta = ASPIRATION_WINDOW;
+        int alpha = -INFINITY;
+        int beta = INFINITY;
+        if (depth >= 4 && Math.abs(previous) < MATE_BOUND) {
+            alpha = Math.max(previous - delta, -INFINITY);
+            beta = Math.min(previous + delta, INFINITY);
+        }
+
+        while (true) {
+            int score = search(depth, alpha, beta, 0, false);
+            if (aborted) return score;
+            if (score <= alpha && alpha > -INFINITY) {
+                alpha = Math.max(score - delta, -INFINITY);
+            } else if (score >= beta && beta < INFINITY) {
+                beta = Math.min(score + delta, INFINITY);
+            } else {
+                return score;
+            }
+            delta *= 2;
+        }
+    }
+
+    private int search(int depth, int alpha, int beta, int ply, boolean nullAllowed) {
+        if (depth <= 0) {
+            return quiesce(alpha, beta, ply);
+        }
+        pvLength[ply] = 0;
+        if ((++nodes & (STOP_CHECK_INTERVAL - 1)) == 0) checkStop();
+        if (aborted) return 0; // the result is thrown away
+        if (ply >= ChessBoard.MAX_PLY - 1) {
+            return Evaluation.evaluate(board);
+        }
+
+        boolean pvNode = beta - alpha > 1;
+        if (ply > 0) {
+            // Mate distance pruning: no line from here can beat a shorter mate already found
+            alpha = Math.max(alpha, -MATE + ply);
+            beta = Math.min(beta, MATE - ply - 1);
+            if (alpha >= beta) return alpha;
+        }
+
+        long key = board.getZobristKey();
+        long entry = transpositionTable.probe(key);
+        int ttMove = 0;
+        if (entry != 0) {
+            ttMove = TranspositionTable.move(entry);
+            if (!pvNode && TranspositionTable.depth(entry) >= depth) {
+                int ttScore = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && ttScore >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && ttScore <= alpha)) {
+                    return ttScore;
+                }
+            }
+        }
+
+        if (ply == 0 && rootMoveHint != 0) ttMove = rootMoveHint;
+
+        Color color = board.getSideToMove();
+        boolean inCheck = board.getCheckers(color) != 0;
+        int staticEval = inCheck ? -INFINITY : Evaluation.evaluate(board);
+
+        if (!pvNode && !inCheck && Math.abs(beta) < MATE_BOUND) {
+            // Reverse futility: so far above beta that a shallow search won't bring it back
+            if (options.reverseFutility && depth <= REVERSE_FUTILITY_DEPTH
+                    && staticEval - REVERSE_FUTILITY_MARGIN * depth >= beta) {
+                return staticEval;
+            }
+
+            // Null move: if passing still fails high, a real move almost surely would too.
+            // Not with only king and pawns, where passing can beat every legal move (zugzwang).
+            if (options.nullMove && nullAllowed && depth >= NULL_MOVE_MIN_DEPTH && staticEval >= beta
+                    && board.hasNonPawnMaterial(color)) {
+                int reduction = 3 + depth / 6;
+                board.makeNullMove();
+                int score = -search(depth - 1 - reduction, -beta, -beta + 1, ply + 1, false);
+                board.undoNullMove();
+                if (aborted) return 0;
+                if (score >= beta) {
+                    return score >= MATE_BOUND ? beta : score; // don't trust mates found after a pass
+                }
+            }
+        }
+
+        // Futility: near the leaves, quiet moves can't lift a hopeless static score to alpha
+        boolean futile = options.futility && !pvNode && !inCheck && depth <= FUTILITY_DEPTH
+                && Math.abs(alpha) < MATE_BOUND && staticEval + FUTILITY_MARGIN[depth] <= alpha;
+
+        MovePicker picker = pickers[ply];
+        picker.init(board, ttMove, killers[ply][0], killers[ply][1], history);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = 0;
+        int searched = 0;
+        int move;
+        while ((move = picker.next()) != 0) {
+            if (ply == 0 && !isRootMoveAllowed(move)) continue;
+            boolean quiet = !Move.isCapture(move) && !Move.isPromotion(move);
+            long nodesBefore = nodes;
+            board.makeMove(move);
+            boolean givesCheck = board.getCheckers(board.getSideToMove()) != 0;
+            if (futile && quiet && !givesCheck && searched > 0) {
+                board.undoMove();
+                continue;
+            }
+
+            int score;
+            if (searched == 0) {
+                score = -search(depth - 1, -beta, -alpha, ply + 1, true);
+            } else {
+                // Late quiet moves are unlikely to be best: search them shallower first
+                int reduction = 0;
+                if (options.lateMoveReductions && depth >= LMR_MIN_DEPTH && searched >= LMR_MIN_MOVES
+                        && quiet && !inCheck && !givesCheck) {
+                    reduction = Math.min(LMR_TABLE[Math.min(depth, MAX_DEPTH - 1)][Math.min(searched, LMR_MAX_MOVES - 1)], depth - 2);
+                }
+                // Prove the move is worse with a null window, re-search if it isn't
+                score = -search(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1, true);
+                if (reduction > 0 && score > alpha) {
+                    score = -search(depth - 1, -alpha - 1, -alpha, ply + 1, true);
+                }
+                if (score > alpha && score < beta) {
+                    score = -search(depth - 1, -beta, -alpha, ply + 1, true);
+                }
+            }
+            board.undoMove();
+            if (aborted) return 0;
+            searched++;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) rootBestNodes = nodes - nodesBefore;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (score >= beta) {
+                        cutoffs++;
+                        if (searched == 1) firstMoveCutoffs++;
+                        if (quiet) {
+                            updateQuietOrdering(color, move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        // The picker found nothing legal: checkmate or stalemate
+        if (searched == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        // A root searched over a restricted move list says nothing about the position itself
+        if (ply > 0 || (excludedCount == 0 && searchMoves == null)) {
+            int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER
+                      : bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT
+                      : TranspositionTable.BOUND_UPPER;
+            transpositionTable.store(key, bestMove, scoreToTable(bestScore, ply), depth, bound);
+        }
+        return bestScore;
+    }
+
+    // Searches captures only until the position is quiet, so the static evaluation is
+    // never taken in the middle of an exchange. When in check every evasion is searched.
+    private int quiesce(int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        if ((++nodes & (STOP_CHECK_INTERVAL - 1)) == 0) checkStop();
+        if (aborted) return 0;
+        if (ply >= ChessBoard.MAX_PLY - 1) {
+            return Evaluation.evaluate(board);
+        }
+
+        Color color = board.getSideToMove();
+        boolean inCheck = board.getCheckers(color) != 0;
+        MovePicker picker = pickers[ply];
+        int standPat = 0;
+        int bestScore;
+        if (inCheck) {
+            bestScore = -MATE + ply;
+            picker.init(board, 0, 0, 0, history);
+        } else {
+            // Stand pat: the side to move can usually do at least as well as doing nothing
+            standPat = Evaluation.evaluate(board);
+            if (standPat >= beta) return standPat;
+            if (standPat > alpha) alpha = standPat;
+            bestScore = standPat;
+            picker.initCaptures(board);
+        }
+
+        int move;
+        while ((move = picker.next()) != 0) {
+            if (!inCheck) {
+                if (!Move.isPromotion(move) && standPat + capturedValue(move) + DELTA_MARGIN <= alpha) continue;
+                if (board.see(move) < 0) continue; // loses material even before the reply
+            }
+            board.makeMove(move);
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            board.undoMove();
+            if (aborted) return 0;
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (score >= beta) break;
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    private boolean isRootMoveAllowed(int move) {
+        for (int i = 0; i < excludedCount; i++) {
+            if (excluded[i] == move) return false;
+        }
+        if (searchMoves == null) return true;
+        for (int allowed : searchMoves) {
+            if (allowed == move) return true;
+        }
+        return false;
+    }
+
+    // Orders MultiPV slots best first; later slots can outscore earlier ones after a
+    // re-search, or when an earlier slot failed low
+    private static void sortSlots(int[] scores, int[][] pvs) {
+        for (int i = 1; i < scores.length; i++) {
+            int score = scores[i];
+            int[] pv = pvs[i];
+            int j = i;
+            for (; j > 0 && scores[j - 1] < score; j--) {
+                scores[j] = scores[j - 1];
+                pvs[j] = pvs[j - 1];
+            }
+            scores[j] = score;
+            pvs[j] = pv;
+        }
+    }
+
+    private void checkStop() {
+        if (stopped || stopSignal.get()) aborted = true;
+        if (threadIndex == 0) {
+            if (stopSignal.get()) timeManager.setStopReason("stop");
+            else if (timeManager.hardLimitReached()) aborted = true;
+            else if (nodeLimit > 0 && getNodes() >= nodeLimit) {
+                aborted = true;
+                timeManager.setStopReason("nodes");
+            }
+            UCIOutput.poll();
+        }
+    }
+
+    private int capturedValue(int move) {
+        Piece victim = board.getPiece(Move.toSquare(move));
+        return victim != null ? Evaluation.PIECE_VALUES[victim.getType().ordinal()]
+             : Evaluation.PIECE_VALUES[PieceType.PAWN.ordinal()]; // en passant
+    }
+
+    private void updateQuietOrdering(Color color, int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] row = history[color.ordinal() * 64 + Move.fromSquare(move)];
+        int to = Move.toSquare(move);
+        row[to] += depth * depth;
+        // Keep scores bounded by halving the whole table when one entry grows large
+        if (row[to] > HISTORY_MAX) {
+            for (int[] r : history) {
+                for (int i = 0; i < r.length; i++) {
+                    r[i] /= 2;
+                }
+            }
+        }
+    }
+
+    private void updatePv(int ply, int move) {
+        pvTable[ply][0] = move;
+        System.arraycopy(pvTable[ply + 1], 0, pvTable[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    // Mate scores are stored relative to the node rather than the root
+    private static int scoreToTable(int score, int ply) {
+        if (score > MATE_BOUND) return score + ply;
+        if (score < -MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score > MATE_BOUND) return score - ply;
+        if (score < -MATE_BOUND) return score + ply;
+        return score;
+    }
+
+    static String formatScore(int score) {
+        if (score > MATE_BOUND) return "mate " + (MATE - score + 1) / 2;
+        if (score < -MATE_BOUND) return "mate " + -(MATE + score) / 2;
+        return "cp " + score;
+    }
+
+    // multiPV is the slot number from 1, or 0 to leave it out in single-PV mode
+    private void printInfo(int depth, int multiPV, int score, int[] pv, long start) {
+        long elapsed = System.nanoTime() - start;
+        long totalNodes = getNodes();
+        StringBuilder info = new StringBuilder("info depth ").append(depth);
+        if (multiPV > 0) info.append(" multipv ").append(multiPV);
+        info.append(" score ").append(formatScore(score))
+            .append(" nodes ").append(totalNodes)
+            .append(" nps ").append(totalNodes * 1_000_000_000L / Math.max(1, elapsed))
+            .append(" time ").append(elapsed / 1_000_000)
+            .append(" hashfull ").append(transpositionTable.hashfull())
+            .append(" pv");
+        for (int move : pv) {
+            info.append(' ').append(Move.toUCI(move));
+        }
+        UCIOutput.info(info.toString());
+    }
+}
@@ -0,0 +1,398 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Command-line benchmarks for the move path.
+// Usage: java chess.Benchmark [perft [threads] [hashMb]|see|search [depth] [-nullmove] [-lmr] [-rfp] [-futility]
+//                             |smp [maxThreads] [depth] [runs]|mcts [maxThreads] [playouts]
+//                             |mate [file.epd] [tableMb] [maxNodes]]
+class Benchmark {
+    // Perft positions 3 and 4 from the chessprogramming wiki: few pieces (3)
+    // and a crowded, tactical middlegame (4), with the depths used for timing
+    static final String[][] PERFT_POSITIONS = {
+        {"Position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", "6", "11030083"},
+        {"Position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", "5", "15833292"},
+    };
+
+    // Fixed positions for comparing search settings: opening, middlegames and endgames
+    static final String[] SEARCH_POSITIONS = {
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "8/8/4k3/8/2p5/2P5/3K4/8 w - - 0 1",
+    };
+    static final int SEARCH_DEPTH = 8;
+
+    // Mate puzzles in EPD form, "dm" being the mate length; used when no file is given
+    static final String[] MATE_POSITIONS = {
+        "6k1/5ppp/8/8/8/8/8/R5K1 w - - dm 1; id \"back rank\";",
+        "kbK5/pp6/1P6/8/8/8/8/R7 w - - dm 2; id \"Morphy, quiet key\";",
+        "r2qkb1r/pp2nppp/3p4/2pNN1B1/2BnP3/3P4/PPP2PPP/R2bK2R w KQkq - dm 2; id \"Legal's mate\";",
+        "6k1/pp4p1/2p5/2bp4/8/P5Pb/1P3rrP/2BRRN1K b - - dm 2; id \"double rook\";",
+        "r1b1kb1r/pppp1ppp/5q2/4n3/3KP3/2N3PN/PPP4P/R1BQ1B1R b kq - dm 3; id \"king hunt\";",
+        "8/8/8/8/8/4k3/8/3QK3 w - - dm 5; id \"KQK\";",
+    };
+    static final long MATE_MAX_NODES = 20_000_000;
+    static final int PERFT_HASH_MB = 64;
+    static final int SMP_DEPTH = 12;
+    static final int SMP_HASH_MB = 256;
+
+    // Timed SEE calls per capture in each position and the positions one move deeper
+    private static final int SEE_REPEATS = 2000;
+    private static long seeChecksum; // consumed so the JIT can't drop the calls
+
+    public static void main(String[] args) {
+        String mode = args.length > 0 ? args[0] : "perft";
+        switch (mode) {
+            case "perft":
+                perft(args);
+                break;
+            case "see":
+                see();
+                break;
+            case "search":
+                search(args);
+                break;
+            case "smp":
+                smp(args);
+                break;
+            case "mcts":
+                mcts(args);
+                break;
+            case "mate":
+                mate(args);
+                break;
+            default:
+                System.out.println("Unknown benchmark: " + mode);
+                break;
+        }
+    }
+
+    // Serial ChessBoard.perft, then the fork-join Perft on all cores (or the given
+    // thread count), then perftBulk without and with a table of hashMb, all checked
+    // against the known node counts. The bulk rows show their speedup over plain
+    // perft and the table's hit rate.
+    private static void perft(String[] args) {
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int hashMb = args.length > 2 ? Integer.parseInt(args[2]) : PERFT_HASH_MB;
+        Perft parallel = new Perft(threads, Perft.DEFAULT_SPLIT_PLIES, null);
+        PerftTable table = new PerftTable(hashMb);
+        AtomicBoolean stop = new AtomicBoolean();
+        for (String[] position : PERFT_POSITIONS) {
+            ChessBoard board = new ChessBoard();
+            board.setFromFEN(position[1]);
+            int depth = Integer.parseInt(position[2]);
+
+            // Warm up the JIT on the shallower tree first
+            board.perft(board.getSideToMove(), depth - 1);
+
+            long start = System.nanoTime();
+            long nodes = board.perft(board.getSideToMove(), depth);
+            long elapsed = System.nanoTime() - start;
+            long plain = elapsed;
+
+            String result = nodes == Long.parseLong(position[3]) ? "ok" : "MISMATCH (expected " + position[3] + ")";
+            System.out.printf("%-12s depth %d  nodes %,d  time %d ms  nps %,d  %s%n",
+                position[0], depth, nodes, elapsed / 1_000_000, nodes * 1_000_000_000L / Math.max(1, elapsed), result);
+
+            start = System.nanoTime();
+            nodes = parallel.perft(board, depth, stop);
+            elapsed = System.nanoTime() - start;
+            result = nodes == Long.parseLong(position[3]) ? "ok" : "MISMATCH (expected " + position[3] + ")";
+            System.out.printf("%-12s depth %d  nodes %,d  time %d ms  nps %,d  %s  (%d threads)%n",
+                position[0], depth, nodes, elapsed / 1_000_000, nodes * 1_000_000_000L / Math.max(1, elapsed), result,
+                parallel.getThreads());
+
+            board.perftBulk(depth - 1, null);
+            long bulkStart = System.nanoTime();
+            nodes = board.perftBulk(depth, null);
+            long bulkElapsed = System.nanoTime() - bulkStart;
+            result = nodes == Long.parseLong(position[3]) ? "ok" : "MISMATCH (expected " + position[3] + ")";
+            System.out.printf("%-12s depth %d  nodes %,d  time %d ms  %s  (bulk, %.1fx)%n",
+                position[0], depth, nodes, bulkElapsed / 1_000_000, result, (double) plain / Math.max(1, bulkElapsed));
+
+            // A cold table each time, so hits come from transpositions within the one tree
+            table.clear();
+            long hashStart = System.nanoTime();
+            nodes = board.perftBulk(depth, table);
+            long hashElapsed = System.nanoTime() - hashStart;
+            result = nodes == Long.parseLong(position[3]) ? "ok" : "MISMATCH (expected " + position[3] + ")";
+            System.out.printf("%-12s depth %d  nodes %,d  time %d ms  %s  (bulk + %d MB hash, %.1fx, hits %.1f%% of %,d probes)%n",
+                position[0], depth, nodes, hashElapsed / 1_000_000, result, table.getBytes() >> 20,
+                (double) plain / Math.max(1, hashElapsed), 100.0 * table.getHits() / Math.max(1, table.getProbes()),
+                table.getProbes());
+        }
+        parallel.shutdown();
+    }
+
+    // Cost of one ChessBoard.see call, averaged over the captures available in
+    // each perft position and in every position one move away from it
+    private static void see() {
+        for (String[] position : PERFT_POSITIONS) {
+            ChessBoard board = new ChessBoard();
+            board.setFromFEN(position[1]);
+
+            seeRound(board, SEE_REPEATS); // warm-up
+
+            long start = System.nanoTime();
+            long calls = seeRound(board, SEE_REPEATS);
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("%-12s SEE calls %,d  time %d ms  %.1f ns/call%n",
+                position[0], calls, elapsed / 1_000_000, (double) elapsed / Math.max(1, calls));
+        }
+        if (seeChecksum == 42) System.out.println(); // keep the results live
+    }
+
+    private static long seeRound(ChessBoard board, int repeats) {
+        int[] moves = new int[ChessBoard.MAX_MOVES];
+        int[] captures = new int[ChessBoard.MAX_MOVES];
+        long calls = seeCaptures(board, captures, repeats);
+        int count = board.generateLegalMoves(board.getSideToMove(), moves);
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            calls += seeCaptures(board, captures, repeats);
+            board.undoMove();
+        }
+        return calls;
+    }
+
+    private static long seeCaptures(ChessBoard board, int[] captures, int repeats) {
+        int count = board.generateLegalMoves(board.getSideToMove(), captures, ChessBoard.GEN_CAPTURES);
+        long sum = 0;
+        for (int r = 0; r < repeats; r++) {
+            for (int i = 0; i < count; i++) {
+                sum += board.see(captures[i]);
+            }
+        }
+        seeChecksum += sum;
+        return (long) count * repeats;
+    }
+
+    // Fixed-depth searches over SEARCH_POSITIONS. Options like -nullmove switch one
+    // technique off, so runs with and without it can be compared on nodes and time.
+    private static void search(String[] args) {
+        int depth = SEARCH_DEPTH;
+        SearchOptions options = new SearchOptions();
+        options.printInfo = false;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "-nullmove": options.nullMove = false; break;
+                case "-lmr": options.lateMoveReductions = false; break;
+                case "-rfp": options.reverseFutility = false; break;
+                case "-futility": options.futility = false; break;
+                default: depth = Integer.parseInt(args[i]); break;
+            }
+        }
+
+        TranspositionTable table = new TranspositionTable(64);
+        AlphaBetaEngine engine = new AlphaBetaEngine(table, options);
+        SearchLimits limits = new SearchLimits();
+        limits.depth = depth;
+
+        long totalNodes = 0;
+        long totalTime = 0;
+        for (String fen : SEARCH_POSITIONS) {
+            ChessBoard board = new ChessBoard();
+            board.setFromFEN(fen);
+            table.clear();
+
+            long start = System.nanoTime();
+            Move best = engine.getBestMove(board, board.getSideToMove(), limits);
+            long elapsed = System.nanoTime() - start;
+
+            totalNodes += engine.getNodes();
+            totalTime += elapsed;
+            System.out.printf("%-70s bestmove %s  nodes %,d  time %d ms%n",
+                fen, best == null ? "(none)" : best.toUCI(), engine.getNodes(), elapsed / 1_000_000);
+        }
+        System.out.printf("depth %d  nodes %,d  time %d ms  nps %,d%n",
+            depth, totalNodes, totalTime / 1_000_000, totalNodes * 1_000_000_000L / Math.max(1, totalTime));
+    }
+
+    // Lazy SMP scaling: time to a fixed depth and nodes per second over SEARCH_POSITIONS
+    // for 1, 2, 4, ... maxThreads threads. Thread timing makes each run different, so
+    // every position is searched several times from an empty hash and the median kept.
+    private static void smp(String[] args) {
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : SMP_DEPTH;
+        int runs = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        System.out.printf("java %s, %s %s, %d cpus, hash %d MB, depth %d, median of %d runs%n",
+            System.getProperty("java.version"), System.getProperty("os.name"), System.getProperty("os.arch"),
+            Runtime.getRuntime().availableProcessors(), SMP_HASH_MB, depth, runs);
+        if (Runtime.getRuntime().availableProcessors() < maxThreads) {
+            System.out.println("warning: fewer cpus than threads, higher thread counts will not scale");
+        }
+
+        TranspositionTable table = new TranspositionTable(SMP_HASH_MB);
+        SearchOptions options = new SearchOptions();
+        options.printInfo = false;
+        AlphaBetaEngine engine = new AlphaBetaEngine(table, options);
+        SearchLimits limits = new SearchLimits();
+        limits.depth = depth;
+
+        // Warm up the JIT so the single-threaded baseline isn't penalised
+        limits.depth = Math.min(depth, 8);
+        for (String fen : SEARCH_POSITIONS) {
+            ChessBoard board = new ChessBoard();
+            board.setFromFEN(fen);
+            engine.getBestMove(board, board.getSideToMove(), limits);
+        }
+        limits.depth = depth;
+
+        System.out.println("threads  time ms  speedup  nodes          nps            nps ratio");
+        long baseTime = 0;
+        long baseNps = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            options.threads = threads;
+            long totalTime = 0;
+            long totalNodes = 0;
+            for (String fen : SEARCH_POSITIONS) {
+                long[] times = new long[runs];
+                long[] nodes = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    ChessBoard board = new ChessBoard();
+                    board.setFromFEN(fen);
+                    table.clear();
+                    long start = System.nanoTime();
+                    engine.getBestMove(board, board.getSideToMove(), limits);
+                    times[run] = System.nanoTime() - start;
+                    nodes[run] = engine.getNodes();
+                }
+                Arrays.sort(times);
+                Arrays.sort(nodes);
+                totalTime += times[runs / 2];
+                totalNodes += nodes[runs / 2];
+            }
+            long nps = totalNodes * 1_000_000_000L / Math.max(1, totalTime);
+            if (threads == 1) {
+                baseTime = totalTime;
+                baseNps = nps;
+            }
+            System.out.printf("%7d  %7d  %7.2f  %,13d  %,13d  %9.2f%n", threads, totalTime / 1_000_000,
+                (double) baseTime / totalTime, totalNodes, nps, (double) nps / Math.max(1, baseNps));
+        }
+    }
+
+    // MCTS throughput: playouts per second over SEARCH_POSITIONS for 1, 2, 4, ... maxThreads
+    // threads, each position searched from an empty tree
+    private static void mcts(String[] args) {
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        long playouts = args.length > 2 ? Long.parseLong(args[2]) : MCTSEngine.DEFAULT_PLAYOUTS;
+
+        System.out.printf("java %s, %s %s, %d cpus, %,d playouts per position%n",
+            System.getProperty("java.version"), System.getProperty("os.name"), System.getProperty("os.arch"),
+            Runtime.getRuntime().availableProcessors(), playouts);
+
+        SearchOptions options = new SearchOptions();
+        options.printInfo = false;
+        MCTSEngine engine = new MCTSEngine(options, MCTSEngine.DEFAULT_CAPACITY);
+        SearchLimits limits = new SearchLimits();
+        limits.nodes = playouts;
+
+        // Warm-up
+        for (String fen : SEARCH_POSITIONS) {
+            ChessBoard board = new ChessBoard();
+            board.setFromFEN(fen);
+            engine.clear();
+            engine.getBestMove(board, board.getSideToMove(), limits);
+        }
+
+        System.out.println("threads  time ms  visits/s       ratio");
+        long baseRate = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            options.threads = threads;
+            long totalTime = 0;
+            long totalPlayouts = 0;
+            for (String fen : SEARCH_POSITIONS) {
+                ChessBoard board = new ChessBoard();
+                board.setFromFEN(fen);
+                engine.clear();
+                long start = System.nanoTime();
+                engine.getBestMove(board, board.getSideToMove(), limits);
+                totalTime += System.nanoTime() - start;
+                totalPlayouts += engine.getPlayouts();
+            }
+            long rate = totalPlayouts * 1_000_000_000L / Math.max(1, totalTime);
+            if (threads == 1) baseRate = rate;
+            System.out.printf("%7d  %7d  %,13d  %5.2f%n", threads, totalTime / 1_000_000, rate, (double) rate / Math.max(1, baseRate));
+        }
+    }
+
+    // Mate solver: solve time and nodes per puzzle from an EPD file (or MATE_POSITIONS),
+    // plus the node table size and the heap in use after the run. The table is cleared
+    // before each puzzle so every time is a cold solve.
+    private static void mate(String[] args) {
+        List<String> lines;
+        if (args.length > 1) {
+            try {
+                lines = Files.readAllLines(Paths.get(args[1]));
+            } catch (IOException e) {
+                System.out.println("Could not read " + args[1] + ": " + e.getMessage());
+                return;
+            }
+        } else {
+            lines = Arrays.asList(MATE_POSITIONS);
+        }
+        int tableMb = args.length > 2 ? Integer.parseInt(args[2]) : MateSolver.DEFAULT_TABLE_MB;
+        long maxNodes = args.length > 3 ? Long.parseLong(args[3]) : MATE_MAX_NODES;
+
+        MateSolver solver = new MateSolver(tableMb);
+        SearchLimits limits = new SearchLimits();
+        limits.nodes = maxNodes;
+        int puzzles = 0;
+        int solved = 0;
+        long totalTime = 0;
+        long totalNodes = 0;
+        System.out.println("  #  dm  found     nodes   time ms  puzzle");
+        for (String line : lines) {
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length < 4 || line.trim().startsWith("#")) continue;
+            String fen = String.join(" ", Arrays.copyOf(fields, 4));
+            String dm = epdOperand(line, "dm");
+            if (dm == null || !dm.matches("\\d+")) continue;
+            int mateIn = Integer.parseInt(dm);
+            String id = epdOperand(line, "id");
+
+            ChessBoard board = new ChessBoard();
+            board.setFromFEN(fen);
+            solver.clear();
+            long start = System.nanoTime();
+            int[] solution = solver.solve(board, mateIn, limits, 0);
+            long time = System.nanoTime() - start;
+
+            puzzles++;
+            int found = solution == null ? 0 : (solution.length + 1) / 2;
+            if (found > 0 && found <= mateIn) solved++;
+            totalTime += time;
+            totalNodes += solver.getNodes();
+            System.out.printf("%3d  %2d  %5s  %8d  %8.1f  %s%n", puzzles, mateIn, found > 0 ? "#" + found : "-",
+                solver.getNodes(), time / 1e6, id != null ? id : fen);
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.printf("solved %d of %d, %d nodes, %.1f ms, table %d MB, heap in use %d MB%n", solved, puzzles,
+            totalNodes, totalTime / 1e6, solver.getTableBytes() >> 20, (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+    }
+
+    // The operand of an EPD opcode ("dm 3;", "id \"name\";") after the four FEN fields,
+    // or null when it is missing
+    private static String epdOperand(String line, String opcode) {
+        String[] fields = line.trim().split("\\s+", 5);
+        if (fields.length < 5) return null;
+        for (String operation : fields[4].split(";")) {
+            String[] parts = operation.trim().split("\\s+", 2);
+            if (parts.length == 2 && parts[0].equals(opcode)) return parts[1].replace("\"", "").trim();
+        }
+        return null;
+    }
+}
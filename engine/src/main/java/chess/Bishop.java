@@ -0,0 +1,18 @@
+package chess;
+
+class Bishop extends Piece {
+    public Bishop(Color color) {
+        super(color, PieceType.BISHOP);
+    }
+
+    @Override
+    public char getSymbol() {
+        return color == Color.WHITE ? 'B' : 'b';
+    }
+
+    @Override
+    public int generateMoves(int square, ChessBoard board, long targets, int[] moves, int count) {
+        targets &= Bitboards.bishopAttacks(square, board.getOccupied()) & ~board.getOccupancy(color);
+        return addMoves(moves, count, square, targets, board);
+    }
+}
\ No newline at end of file
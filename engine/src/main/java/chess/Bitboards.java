@@ -0,0 +1,197 @@
+package chess;
+
+// Precomputed attack tables and magic bitboard lookups for sliding pieces.
+// Bitboard squares run a1 = 0, b1 = 1, ..., h8 = 63; mailbox squares are
+// converted with toSquare/toMailbox.
+final class Bitboards {
+    static final long FILE_A = 0x0101010101010101L;
+    static final long FILE_H = FILE_A << 7;
+    static final long RANK_1 = 0xFFL;
+    static final long RANK_8 = RANK_1 << 56;
+
+    static final long[] KNIGHT_ATTACKS = new long[64];
+    static final long[] KING_ATTACKS = new long[64];
+    static final long[][] PAWN_ATTACKS = new long[2][64]; // [color][square]
+    static final long[][] BETWEEN = new long[64][64]; // squares strictly between two aligned squares
+    static final long[][] LINE = new long[64][64]; // whole rank/file/diagonal through two aligned squares
+
+    private static final int[] ROOK_DIRECTIONS = {8, -8, 1, -1};
+    private static final int[] BISHOP_DIRECTIONS = {9, 7, -7, -9};
+
+    // Magic multipliers, found once with a seeded trial-and-error search; hardcoded
+    // so class loading only has to fill the tables instead of searching again
+    private static final long[] ROOK_MAGICS = {
+        0x0080004000802018L, 0x5040004010002000L, 0x0100200010084102L, 0x3100081000050020L,
+        0x0700050008001082L, 0x2480140002008031L, 0x0400281209008410L, 0xA10004820149A100L,
+        0x0000800020804010L, 0x0000804000802000L, 0x0001001100402000L, 0x0860800800100080L,
+        0x8021000800050010L, 0x8641808052000400L, 0xB121000402000100L, 0x0401001040810012L,
+        0x0080004000200040L, 0x0001050028400082L, 0x4880410020061100L, 0x040221001001000AL,
+        0x0004008004080081L, 0x100A010100040008L, 0x0420040048010210L, 0x0050060000804904L,
+        0x0040005880008020L, 0x0040400040201000L, 0x0104410900200010L, 0x4082880280100080L,
+        0x8004040080080080L, 0x0108020080800400L, 0x0000420400104801L, 0x000000A20001005CL,
+        0x8020400020801080L, 0x5800200040401000L, 0x0011001049002000L, 0x0000080080801000L,
+        0x100C008008080040L, 0x0100020080800400L, 0x0408020001010004L, 0x0000084902000084L,
+        0x0040014180028020L, 0xC000200040008080L, 0x1000100020008080L, 0x1000401022020008L,
+        0x0284008040080800L, 0x8011000400030018L, 0x8022000408020001L, 0x0100028251020024L,
+        0x0010400080002080L, 0x2110004000201840L, 0x0082100020018680L, 0x0208080080100080L,
+        0x0000110004080100L, 0x0080040080020080L, 0x0482008408010200L, 0xF000840085116200L,
+        0x6200104700228001L, 0x0040190082002042L, 0x800020000A40B103L, 0x0010100100080421L,
+        0x0002010420100802L, 0x0005004204004801L, 0x60010004020010A1L, 0x0000084028850402L
+    };
+    private static final long[] BISHOP_MAGICS = {
+        0x0020600090810040L, 0x8C02084644014108L, 0x0530510441000009L, 0x6051040081180020L,
+        0x4004042100102000L, 0x0819112030000008L, 0x0004008411084140L, 0x8060402804026022L,
+        0x08426A1810440248L, 0x0080029818010040L, 0x01101210A2020000L, 0x000004104201A100L,
+        0x0118062110110038L, 0x0102C20813180000L, 0x2000A10082212008L, 0x0004230411014810L,
+        0x00204008200400A0L, 0x0014041250125200L, 0x3021080808012280L, 0x002A0C8402120101L,
+        0x601100A690400900L, 0x0018200310101018L, 0x0821020208014408L, 0x0200240212010420L,
+        0x0008054121041000L, 0x0831500004048800L, 0x2817480210008014L, 0x0084010000200880L,
+        0x0003011001004010L, 0xA000840806010421L, 0x8200A08001080840L, 0x0542108400241101L,
+        0x0022021101A02100L, 0x0020907008080210L, 0x0011080204A10400L, 0x0880A02020080080L,
+        0x0120420020020080L, 0x0022500040820800L, 0x0404280200A04110L, 0x0000A40100065100L,
+        0x8108018410012040L, 0x4000809088201000L, 0x020011080102A800L, 0x4008020204240200L,
+        0x0520409812002040L, 0x1002009008808100L, 0x4413920204001200L, 0x0008009A82100180L,
+        0x0134414450400049L, 0x1000210108200003L, 0x0028202412080800L, 0x8380000084040302L,
+        0x020C021022022408L, 0x0008080208220000L, 0x00A0081000908100L, 0x6848210800811400L,
+        0x2040804110012040L, 0x2C0000C402980802L, 0x422010044E109000L, 0x00000004418C0C10L,
+        0x0000800040082200L, 0x0080C91010021820L, 0x0000040890041081L, 0x8040040104010012L
+    };
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    private static final int[] MAILBOX_TO_SQUARE = new int[120];
+    private static final int[] SQUARE_TO_MAILBOX = new int[64];
+
+    static {
+        for (int i = 0; i < 120; i++) MAILBOX_TO_SQUARE[i] = -1;
+        for (int sq = 0; sq < 64; sq++) {
+            int mailbox = 21 + (7 - sq / 8) * 10 + sq % 8;
+            SQUARE_TO_MAILBOX[sq] = mailbox;
+            MAILBOX_TO_SQUARE[mailbox] = sq;
+        }
+
+        int[][] knightSteps = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        int[][] kingSteps = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+        for (int sq = 0; sq < 64; sq++) {
+            KNIGHT_ATTACKS[sq] = stepAttacks(sq, knightSteps);
+            KING_ATTACKS[sq] = stepAttacks(sq, kingSteps);
+            PAWN_ATTACKS[0][sq] = stepAttacks(sq, new int[][] {{-1, 1}, {1, 1}});
+            PAWN_ATTACKS[1][sq] = stepAttacks(sq, new int[][] {{-1, -1}, {1, -1}});
+        }
+
+        for (int sq = 0; sq < 64; sq++) {
+            initMagic(sq, ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS[sq], ROOK_SHIFTS, ROOK_TABLE);
+            initMagic(sq, BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS[sq], BISHOP_SHIFTS, BISHOP_TABLE);
+        }
+
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                long ends = (1L << a) | (1L << b);
+                if (a != b && (rookAttacks(a, 0L) & (1L << b)) != 0) {
+                    LINE[a][b] = (rookAttacks(a, 0L) & rookAttacks(b, 0L)) | ends;
+                    BETWEEN[a][b] = rookAttacks(a, 1L << b) & rookAttacks(b, 1L << a);
+                } else if (a != b && (bishopAttacks(a, 0L) & (1L << b)) != 0) {
+                    LINE[a][b] = (bishopAttacks(a, 0L) & bishopAttacks(b, 0L)) | ends;
+                    BETWEEN[a][b] = bishopAttacks(a, 1L << b) & bishopAttacks(b, 1L << a);
+                }
+            }
+        }
+    }
+
+    private Bitboards() {}
+
+    public static int toSquare(int mailbox) {
+        return MAILBOX_TO_SQUARE[mailbox];
+    }
+
+    public static int toMailbox(int square) {
+        return SQUARE_TO_MAILBOX[square];
+    }
+
+    public static long rookAttacks(int sq, long occupied) {
+        return ROOK_TABLE[sq][(int) (((occupied & ROOK_MASKS[sq]) * ROOK_MAGICS[sq]) >>> ROOK_SHIFTS[sq])];
+    }
+
+    public static long bishopAttacks(int sq, long occupied) {
+        return BISHOP_TABLE[sq][(int) (((occupied & BISHOP_MASKS[sq]) * BISHOP_MAGICS[sq]) >>> BISHOP_SHIFTS[sq])];
+    }
+
+    public static long queenAttacks(int sq, long occupied) {
+        return rookAttacks(sq, occupied) | bishopAttacks(sq, occupied);
+    }
+
+    private static long stepAttacks(int sq, int[][] steps) {
+        long attacks = 0L;
+        int file = sq % 8, rank = sq / 8;
+        for (int[] step : steps) {
+            int f = file + step[0], r = rank + step[1];
+            if (f >= 0 && f < 8 && r >= 0 && r < 8) attacks |= 1L << (r * 8 + f);
+        }
+        return attacks;
+    }
+
+    // Walks each ray until it leaves the board or hits a blocker (the blocker is included)
+    private static long slidingAttacks(int sq, long occupied, int[] directions) {
+        long attacks = 0L;
+        for (int direction : directions) {
+            int s = sq;
+            while (true) {
+                int file = s % 8;
+                int next = s + direction;
+                if (next < 0 || next > 63) break;
+                if (Math.abs(next % 8 - file) > 1) break; // wrapped around the board edge
+                s = next;
+                attacks |= 1L << s;
+                if ((occupied & (1L << s)) != 0) break;
+            }
+        }
+        return attacks;
+    }
+
+    // Relevant occupancy: every ray square except the last one before the edge
+    private static long relevantMask(int sq, int[] directions) {
+        long mask = 0L;
+        for (int direction : directions) {
+            int s = sq;
+            while (true) {
+                int file = s % 8;
+                int next = s + direction;
+                if (next < 0 || next > 63 || Math.abs(next % 8 - file) > 1) break;
+                int after = next + direction;
+                if (after < 0 || after > 63 || Math.abs(after % 8 - next % 8) > 1) break;
+                s = next;
+                mask |= 1L << s;
+            }
+        }
+        return mask;
+    }
+
+    private static void initMagic(int sq, int[] directions, long[] masks, long magic,
+                                  int[] shifts, long[][] tables) {
+        long mask = relevantMask(sq, directions);
+        int bits = Long.bitCount(mask);
+        long[] table = new long[1 << bits];
+
+        // Enumerate every subset of the mask (carry-rippler) and file its attacks under the magic index
+        long subset = 0L;
+        do {
+            int index = (int) ((subset * magic) >>> (64 - bits));
+            long attacks = slidingAttacks(sq, subset, directions);
+            if (table[index] != 0 && table[index] != attacks) {
+                throw new IllegalStateException("Bad magic for square " + sq);
+            }
+            table[index] = attacks;
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+
+        masks[sq] = mask;
+        shifts[sq] = 64 - bits;
+        tables[sq] = table;
+    }
+}
@@ -0,0 +1,930 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class ChessBoard {
+    public static final int MAX_MOVES = 256; // per position, pseudo-legal included
+    public static final int MAX_PLY = 128; // deepest perft/search ply with its own move buffer
+    public static final int INITIAL_HISTORY = 1024; // undo stack size to start with; grows for longer games
+
+    public static final int GEN_ALL = 0;
+    public static final int GEN_CAPTURES = 1;
+    public static final int GEN_QUIETS = 2;
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    // Shared piece instances, [color * 6 + piece type]
+    private static final Piece[] PIECES = new Piece[12];
+    // Castling rights kept when a move touches a square (king or rook home squares)
+    private static final int[] CASTLING_MASK = new int[64];
+    // Exchange values by piece type ordinal: material values, with the king priced out of any trade
+    private static final int[] SEE_VALUES = Evaluation.PIECE_VALUES.clone();
+
+    static {
+        for (Color color : new Color[] {Color.WHITE, Color.BLACK}) {
+            int base = color.ordinal() * 6;
+            PIECES[base + PieceType.KING.ordinal()] = new King(color);
+            PIECES[base + PieceType.QUEEN.ordinal()] = new Queen(color);
+            PIECES[base + PieceType.ROOK.ordinal()] = new Rook(color);
+            PIECES[base + PieceType.BISHOP.ordinal()] = new Bishop(color);
+            PIECES[base + PieceType.KNIGHT.ordinal()] = new Knight(color);
+            PIECES[base + PieceType.PAWN.ordinal()] = new Pawn(color);
+        }
+        for (int sq = 0; sq < 64; sq++) CASTLING_MASK[sq] = 15;
+        CASTLING_MASK[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[7] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASK[63] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        SEE_VALUES[PieceType.KING.ordinal()] = 20000;
+    }
+
+    private Piece[] board; // 64 squares, a1 = 0 (see Bitboards)
+    private long[] pieceBitboards; // [color * 6 + piece type]
+    private long[] colorBitboards; // [color]
+    private long occupied;
+    private int enPassantSquare = -1;
+    private int castlingRights;
+    private Color sideToMove = Color.WHITE;
+    private long zobristKey; // updated incrementally; run with -ea to check it against computeZobristKey
+    // Evaluation terms kept by setPiece, White's point of view (see Evaluation); -ea checks
+    // them against a full recompute like the key
+    private int midgameScore;
+    private int endgameScore;
+    private int phase;
+
+    // Undo stack: everything makeMove overwrites that the move itself can't restore
+    private int[] moveStack = new int[INITIAL_HISTORY];
+    private Piece[] capturedStack = new Piece[INITIAL_HISTORY];
+    private int[] enPassantStack = new int[INITIAL_HISTORY];
+    private int[] castlingStack = new int[INITIAL_HISTORY];
+    private int undoCount;
+
+    // Move buffers, one per ply, allocated on first use so board copies stay cheap
+    private int[][] moveBuffers = new int[MAX_PLY][];
+    private int[] legalityBuffer = new int[MAX_MOVES];
+    private int[] seeGain = new int[33]; // one entry per capture in an exchange, plus the first
+
+    // Positions still use mailbox squares 21-28, 31-38, ..., 91-98;
+    // the board itself is stored as bitboards plus a 64-square piece array
+    public ChessBoard() {
+        board = new Piece[64];
+        pieceBitboards = new long[12];
+        colorBitboards = new long[2];
+    }
+
+    // Independent copy for another search thread: same position and move history,
+    // its own scratch buffers
+    public ChessBoard(ChessBoard other) {
+        board = other.board.clone();
+        pieceBitboards = other.pieceBitboards.clone();
+        colorBitboards = other.colorBitboards.clone();
+        occupied = other.occupied;
+        enPassantSquare = other.enPassantSquare;
+        castlingRights = other.castlingRights;
+        sideToMove = other.sideToMove;
+        zobristKey = other.zobristKey;
+        midgameScore = other.midgameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+        moveStack = other.moveStack.clone();
+        capturedStack = other.capturedStack.clone();
+        enPassantStack = other.enPassantStack.clone();
+        castlingStack = other.castlingStack.clone();
+        undoCount = other.undoCount;
+    }
+
+
+    private Piece createPiece(Color color, PieceType type) {
+        return PIECES[color.ordinal() * 6 + type.ordinal()];
+    }
+
+    public Piece getPiece(Position pos) {
+        return board[Bitboards.toSquare(pos.square)];
+    }
+
+    public Piece getPiece(int square) {
+        return board[square];
+    }
+
+    public void setPiece(Position pos, Piece piece) {
+        setPiece(Bitboards.toSquare(pos.square), piece);
+    }
+
+    // Keeps the piece array, all bitboards, the Zobrist key and the evaluation terms in sync
+    public void setPiece(int square, Piece piece) {
+        long bit = 1L << square;
+        Piece old = board[square];
+        if (old != null) {
+            int index = old.getColor().ordinal() * 6 + old.getType().ordinal();
+            pieceBitboards[index] ^= bit;
+            colorBitboards[old.getColor().ordinal()] ^= bit;
+            occupied ^= bit;
+            zobristKey ^= Zobrist.PIECES[index][square];
+            midgameScore -= Evaluation.MIDGAME[index][square];
+            endgameScore -= Evaluation.ENDGAME[index][square];
+            phase -= Evaluation.PHASE_WEIGHTS[old.getType().ordinal()];
+        }
+        board[square] = piece;
+        if (piece != null) {
+            int index = piece.getColor().ordinal() * 6 + piece.getType().ordinal();
+            pieceBitboards[index] |= bit;
+            colorBitboards[piece.getColor().ordinal()] |= bit;
+            occupied |= bit;
+            zobristKey ^= Zobrist.PIECES[index][square];
+            midgameScore += Evaluation.MIDGAME[index][square];
+            endgameScore += Evaluation.ENDGAME[index][square];
+            phase += Evaluation.PHASE_WEIGHTS[piece.getType().ordinal()];
+        }
+    }
+
+    public int getMidgameScore() {
+        return midgameScore;
+    }
+
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    // Sum of Evaluation.PHASE_WEIGHTS over the pieces on the board, 24 at the start
+    public int getPhase() {
+        return phase;
+    }
+
+    // Recomputes the evaluation terms from the pieces; true if the incremental ones match
+    private boolean evaluationInSync() {
+        int midgame = 0;
+        int endgame = 0;
+        int sum = 0;
+        for (long pieces = occupied; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            Piece piece = board[square];
+            int index = piece.getColor().ordinal() * 6 + piece.getType().ordinal();
+            midgame += Evaluation.MIDGAME[index][square];
+            endgame += Evaluation.ENDGAME[index][square];
+            sum += Evaluation.PHASE_WEIGHTS[piece.getType().ordinal()];
+        }
+        return midgame == midgameScore && endgame == endgameScore && sum == phase;
+    }
+
+    public long getPieces(Color color, PieceType type) {
+        return pieceBitboards[color.ordinal() * 6 + type.ordinal()];
+    }
+
+    public long getOccupancy(Color color) {
+        return colorBitboards[color.ordinal()];
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+    
+    public int getPieceCount(Color color, PieceType type) {
+        return Long.bitCount(getPieces(color, type));
+    }
+
+    public Position getEnPassantTarget() {
+        return enPassantSquare < 0 ? null : new Position(Bitboards.toMailbox(enPassantSquare));
+    }
+
+    public void setEnPassantTarget(Position target) {
+        if (enPassantSquare >= 0) zobristKey ^= Zobrist.EN_PASSANT_FILE[enPassantSquare % 8];
+        this.enPassantSquare = target == null ? -1 : Bitboards.toSquare(target.square);
+        if (enPassantSquare >= 0) zobristKey ^= Zobrist.EN_PASSANT_FILE[enPassantSquare % 8];
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public long getZobristKey() {
+        return zobristKey;
+    }
+    
+    // Full recompute of the key from the position, for setup and debug checks
+    public long computeZobristKey() {
+        long key = 0L;
+        for (long pieces = occupied; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            Piece piece = board[square];
+            key ^= Zobrist.PIECES[piece.getColor().ordinal() * 6 + piece.getType().ordinal()][square];
+        }
+        key ^= Zobrist.CASTLING[castlingRights];
+        if (enPassantSquare >= 0) key ^= Zobrist.EN_PASSANT_FILE[enPassantSquare % 8];
+        if (sideToMove == Color.BLACK) key ^= Zobrist.BLACK_TO_MOVE;
+        return key;
+    }
+    
+    public Color getSideToMove() {
+        return sideToMove;
+    }
+    
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public boolean canCastle(Color color, boolean kingside) {
+        int right;
+        if (color == Color.WHITE) {
+            right = kingside ? WHITE_KINGSIDE : WHITE_QUEENSIDE;
+        } else {
+            right = kingside ? BLACK_KINGSIDE : BLACK_QUEENSIDE;
+        }
+        return (castlingRights & right) != 0;
+    }
+
+    public Position getKingPosition(Color color) {
+        long king = getPieces(color, PieceType.KING);
+        if (king == 0) return null;
+        return new Position(Bitboards.toMailbox(Long.numberOfTrailingZeros(king)));
+    }
+
+    public int getKingSquare(Color color) {
+        return Long.numberOfTrailingZeros(getPieces(color, PieceType.KING));
+    }
+
+    // Moves played since the position was set up, oldest first
+    public int getHistorySize() {
+        return undoCount;
+    }
+
+    public int getHistoryMove(int index) {
+        return moveStack[index];
+    }
+
+    public boolean makeMove(Move move) {
+        Piece piece = getPiece(move.from);
+        if (piece == null) return false;
+
+        int encoded = encodeMove(move);
+        move.isCastling = (Move.flags(encoded) & Move.CASTLING) != 0;
+        makeMove(encoded);
+        return true;
+    }
+
+    public void undoMove(Move move) {
+        undoMove();
+    }
+
+    // Fills in the flags a Move built from two squares doesn't carry
+    private int encodeMove(Move move) {
+        int from = Bitboards.toSquare(move.from.square);
+        int to = Bitboards.toSquare(move.to.square);
+        Piece piece = board[from];
+        int flags = board[to] != null ? Move.CAPTURE : 0;
+        if (piece.getType() == PieceType.PAWN) {
+            if (Math.abs(to - from) == 16) flags |= Move.DOUBLE_PUSH;
+            if (move.isEnPassant || (to == enPassantSquare && (to - from) % 8 != 0)) {
+                flags |= Move.CAPTURE | Move.EN_PASSANT;
+            }
+        }
+        if (piece.getType() == PieceType.KING && Math.abs(to - from) == 2) flags |= Move.CASTLING;
+        return Move.encode(from, to, flags, move.promotionPiece);
+    }
+
+    public void makeMove(int move) {
+        int from = Move.fromSquare(move);
+        int to = Move.toSquare(move);
+        int flags = Move.flags(move);
+        Piece piece = board[from];
+        Color color = piece.getColor();
+        Piece captured = board[to];
+
+        // Handle en passant
+        if ((flags & Move.EN_PASSANT) != 0) {
+            int captureSquare = (color == Color.WHITE) ? to - 8 : to + 8;
+            captured = board[captureSquare];
+            setPiece(captureSquare, null);
+        }
+
+        if (undoCount == moveStack.length) growHistory();
+        moveStack[undoCount] = move;
+        capturedStack[undoCount] = captured;
+        enPassantStack[undoCount] = enPassantSquare;
+        castlingStack[undoCount] = castlingRights;
+        undoCount++;
+
+        // Handle castling
+        if ((flags & Move.CASTLING) != 0) {
+            boolean kingside = to > from;
+            int rookFromSquare = kingside ? from + 3 : from - 4;
+            int rookToSquare = kingside ? to - 1 : to + 1;
+
+            Piece rook = board[rookFromSquare];
+            setPiece(rookFromSquare, null);
+            setPiece(rookToSquare, rook);
+        }
+
+        // Make the move, handling pawn promotion
+        PieceType promotion = Move.promotion(move);
+        setPiece(from, null);
+        setPiece(to, promotion != null ? createPiece(color, promotion) : piece);
+
+        // Update en passant target
+        if (enPassantSquare >= 0) zobristKey ^= Zobrist.EN_PASSANT_FILE[enPassantSquare % 8];
+        enPassantSquare = (flags & Move.DOUBLE_PUSH) != 0 ? (from + to) / 2 : -1;
+        if (enPassantSquare >= 0) zobristKey ^= Zobrist.EN_PASSANT_FILE[enPassantSquare % 8];
+
+        // A king or rook leaving (or a rook being captured on) its home square loses the right
+        zobristKey ^= Zobrist.CASTLING[castlingRights];
+        castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        zobristKey ^= Zobrist.CASTLING[castlingRights];
+
+        sideToMove = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        zobristKey ^= Zobrist.BLACK_TO_MOVE;
+        assert zobristKey == computeZobristKey() : "Zobrist key out of sync after " + Move.toUCI(move);
+        assert evaluationInSync() : "Evaluation out of sync after " + Move.toUCI(move);
+    }
+
+    // Doubles the undo stacks, for games (plus search) longer than they have room for
+    private void growHistory() {
+        int size = moveStack.length * 2;
+        moveStack = Arrays.copyOf(moveStack, size);
+        capturedStack = Arrays.copyOf(capturedStack, size);
+        enPassantStack = Arrays.copyOf(enPassantStack, size);
+        castlingStack = Arrays.copyOf(castlingStack, size);
+    }
+
+    public void undoMove() {
+        undoCount--;
+        int move = moveStack[undoCount];
+        int from = Move.fromSquare(move);
+        int to = Move.toSquare(move);
+        int flags = Move.flags(move);
+        Piece piece = board[to];
+        Color color = piece.getColor();
+        Piece captured = capturedStack[undoCount];
+        capturedStack[undoCount] = null;
+
+        // Undo promotion
+        setPiece(from, Move.isPromotion(move) ? createPiece(color, PieceType.PAWN) : piece);
+
+        // Handle en passant undo
+        if ((flags & Move.EN_PASSANT) != 0) {
+            int captureSquare = (color == Color.WHITE) ? to - 8 : to + 8;
+            setPiece(to, null);
+            setPiece(captureSquare, captured);
+        } else {
+            setPiece(to, captured);
+        }
+
+        // Handle castling undo
+        if ((flags & Move.CASTLING) != 0) {
+            boolean kingside = to > from;
+            int rookFromSquare = kingside ? from + 3 : from - 4;
+            int rookToSquare = kingside ? to - 1 : to + 1;
+
+            Piece rook = board[rookToSquare];
+            setPiece(rookToSquare, null);
+            setPiece(rookFromSquare, rook);
+        }
+
+        // Restore en passant target and castling rights
+        if (enPassantSquare >= 0) zobristKey ^= Zobrist.EN_PASSANT_FILE[enPassantSquare % 8];
+        enPassantSquare = enPassantStack[undoCount];
+        if (enPassantSquare >= 0) zobristKey ^= Zobrist.EN_PASSANT_FILE[enPassantSquare % 8];
+        zobristKey ^= Zobrist.CASTLING[castlingRights] ^ Zobrist.CASTLING[castlingStack[undoCount]];
+        castlingRights = castlingStack[undoCount];
+
+        sideToMove = color;
+        zobristKey ^= Zobrist.BLACK_TO_MOVE;
+        assert zobristKey == computeZobristKey() : "Zobrist key out of sync after undoing " + Move.toUCI(move);
+        assert evaluationInSync() : "Evaluation out of sync after undoing " + Move.toUCI(move);
+    }
+
+    // Passes the turn for null-move pruning: flips the side to move and clears the
+    // en passant square. Must be undone with undoNullMove, never undoMove.
+    public void makeNullMove() {
+        if (undoCount == moveStack.length) growHistory();
+        moveStack[undoCount] = 0;
+        capturedStack[undoCount] = null;
+        enPassantStack[undoCount] = enPassantSquare;
+        castlingStack[undoCount] = castlingRights;
+        undoCount++;
+
+        if (enPassantSquare >= 0) zobristKey ^= Zobrist.EN_PASSANT_FILE[enPassantSquare % 8];
+        enPassantSquare = -1;
+        sideToMove = (sideToMove == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        zobristKey ^= Zobrist.BLACK_TO_MOVE;
+    }
+
+    public void undoNullMove() {
+        undoCount--;
+        enPassantSquare = enPassantStack[undoCount];
+        if (enPassantSquare >= 0) zobristKey ^= Zobrist.EN_PASSANT_FILE[enPassantSquare % 8];
+        sideToMove = (sideToMove == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        zobristKey ^= Zobrist.BLACK_TO_MOVE;
+    }
+
+    // False for king and pawn only material, where passing can be better than any move (zugzwang)
+    public boolean hasNonPawnMaterial(Color color) {
+        int base = color.ordinal() * 6;
+        return (colorBitboards[color.ordinal()] & ~pieceBitboards[base + PieceType.PAWN.ordinal()]
+                & ~pieceBitboards[base + PieceType.KING.ordinal()]) != 0;
+    }
+
+    public boolean isInCheck(Color color) {
+        return isSquareUnderAttack(getKingSquare(color), color);
+    }
+
+    // Asks the attack question on the occupancy after from -> to instead of moving pieces
+    public boolean wouldBeInCheck(Color color, Position from, Position to) {
+        int fromSquare = Bitboards.toSquare(from.square);
+        int toSquare = Bitboards.toSquare(to.square);
+        long toBit = 1L << toSquare;
+        long occupiedAfter = (occupied & ~(1L << fromSquare)) | toBit;
+        int kingSquare = board[fromSquare].getType() == PieceType.KING ? toSquare : getKingSquare(color);
+        
+        Color enemy = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        // A piece captured on the destination no longer attacks anything
+        return (attackersTo(kingSquare, occupiedAfter) & getOccupancy(enemy) & ~toBit) != 0;
+    }
+    
+    private boolean isSquareUnderAttack(Position pos, Color defendingColor) {
+        return isSquareUnderAttack(Bitboards.toSquare(pos.square), defendingColor);
+    }
+    
+    // Looks outward from the target square: a piece of type X attacks the target
+    // exactly when an X standing on the target would attack that piece
+    public boolean isSquareUnderAttack(int target, Color defendingColor) {
+        int enemy = (defendingColor == Color.WHITE) ? 6 : 0;
+        
+        if ((Bitboards.PAWN_ATTACKS[defendingColor.ordinal()][target] & pieceBitboards[enemy + PieceType.PAWN.ordinal()]) != 0) return true;
+        if ((Bitboards.KNIGHT_ATTACKS[target] & pieceBitboards[enemy + PieceType.KNIGHT.ordinal()]) != 0) return true;
+        if ((Bitboards.KING_ATTACKS[target] & pieceBitboards[enemy + PieceType.KING.ordinal()]) != 0) return true;
+        
+        long queens = pieceBitboards[enemy + PieceType.QUEEN.ordinal()];
+        long diagonal = pieceBitboards[enemy + PieceType.BISHOP.ordinal()] | queens;
+        if (diagonal != 0 && (Bitboards.bishopAttacks(target, occupied) & diagonal) != 0) return true;
+        long straight = pieceBitboards[enemy + PieceType.ROOK.ordinal()] | queens;
+        return straight != 0 && (Bitboards.rookAttacks(target, occupied) & straight) != 0;
+    }
+    
+    // Pieces of both colors attacking the square, with sliders blocked by the given occupancy
+    public long attackersTo(int square, long occupied) {
+        long queens = pieceBitboards[PieceType.QUEEN.ordinal()] | pieceBitboards[6 + PieceType.QUEEN.ordinal()];
+        long rooks = pieceBitboards[PieceType.ROOK.ordinal()] | pieceBitboards[6 + PieceType.ROOK.ordinal()];
+        long bishops = pieceBitboards[PieceType.BISHOP.ordinal()] | pieceBitboards[6 + PieceType.BISHOP.ordinal()];
+        long knights = pieceBitboards[PieceType.KNIGHT.ordinal()] | pieceBitboards[6 + PieceType.KNIGHT.ordinal()];
+        long kings = pieceBitboards[PieceType.KING.ordinal()] | pieceBitboards[6 + PieceType.KING.ordinal()];
+        
+        return (Bitboards.PAWN_ATTACKS[1][square] & pieceBitboards[PieceType.PAWN.ordinal()])
+             | (Bitboards.PAWN_ATTACKS[0][square] & pieceBitboards[6 + PieceType.PAWN.ordinal()])
+             | (Bitboards.KNIGHT_ATTACKS[square] & knights)
+             | (Bitboards.KING_ATTACKS[square] & kings)
+             | (Bitboards.bishopAttacks(square, occupied) & (bishops | queens))
+             | (Bitboards.rookAttacks(square, occupied) & (rooks | queens));
+    }
+    
+    // Pieces of the given color attacking the square on the current board
+    public long getAttackers(int square, Color color) {
+        return attackersTo(square, occupied) & getOccupancy(color);
+    }
+
+    // Static exchange evaluation: material the side to move wins (negative: loses) by
+    // playing move and then trading off every attacker of the destination square, each
+    // side always recapturing with its least valuable piece and free to stop when
+    // continuing would lose. Sliders behind a piece that has just captured (x-rays)
+    // join in as the line opens. Pins are ignored, as in most engines.
+    public int see(int move) {
+        if ((Move.flags(move) & Move.CASTLING) != 0) return 0;
+        int from = Move.fromSquare(move);
+        int to = Move.toSquare(move);
+        
+        long occ = occupied ^ (1L << from);
+        int[] gain = seeGain;
+        if ((Move.flags(move) & Move.EN_PASSANT) != 0) {
+            occ ^= 1L << (sideToMove == Color.WHITE ? to - 8 : to + 8);
+            gain[0] = SEE_VALUES[PieceType.PAWN.ordinal()];
+        } else {
+            gain[0] = board[to] != null ? SEE_VALUES[board[to].getType().ordinal()] : 0;
+        }
+        int onSquare = SEE_VALUES[board[from].getType().ordinal()]; // value of the piece that would be taken next
+        PieceType promotion = Move.promotion(move);
+        if (promotion != null) {
+            gain[0] += SEE_VALUES[promotion.ordinal()] - SEE_VALUES[PieceType.PAWN.ordinal()];
+            onSquare = SEE_VALUES[promotion.ordinal()];
+        }
+        
+        long diagonal = pieceBitboards[PieceType.BISHOP.ordinal()] | pieceBitboards[6 + PieceType.BISHOP.ordinal()]
+                      | pieceBitboards[PieceType.QUEEN.ordinal()] | pieceBitboards[6 + PieceType.QUEEN.ordinal()];
+        long straight = pieceBitboards[PieceType.ROOK.ordinal()] | pieceBitboards[6 + PieceType.ROOK.ordinal()]
+                      | pieceBitboards[PieceType.QUEEN.ordinal()] | pieceBitboards[6 + PieceType.QUEEN.ordinal()];
+        long attackers = attackersTo(to, occ) & occ;
+        int side = 1 - sideToMove.ordinal();
+        int depth = 0;
+        while (true) {
+            long sideAttackers = attackers & colorBitboards[side];
+            if (sideAttackers == 0) break;
+            
+            // Least valuable attacker; PieceType ordinals run from king (0) to pawn (5)
+            int type = PieceType.PAWN.ordinal();
+            long candidates;
+            while ((candidates = sideAttackers & pieceBitboards[side * 6 + type]) == 0) type--;
+            
+            // The king may only recapture if nothing can take it back
+            if (type == PieceType.KING.ordinal() && (attackers & colorBitboards[1 - side]) != 0) break;
+            
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+            onSquare = SEE_VALUES[type];
+            
+            occ ^= candidates & -candidates;
+            if (type == PieceType.PAWN.ordinal() || type == PieceType.BISHOP.ordinal() || type == PieceType.QUEEN.ordinal()) {
+                attackers |= Bitboards.bishopAttacks(to, occ) & diagonal;
+            }
+            if (type == PieceType.ROOK.ordinal() || type == PieceType.QUEEN.ordinal()) {
+                attackers |= Bitboards.rookAttacks(to, occ) & straight;
+            }
+            attackers &= occ;
+            side = 1 - side;
+        }
+        
+        // Each side picks the better of stopping and recapturing, from the last capture back
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+    
+    public List<Move> getAllLegalMoves(Color color) {
+        int[] moves = new int[MAX_MOVES];
+        int count = generateLegalMoves(color, moves);
+        List<Move> legalMoves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            legalMoves.add(new Move(moves[i]));
+        }
+        return legalMoves;
+    }
+
+    // Writes the legal moves for color into moves, returns how many there are
+    public int generateLegalMoves(Color color, int[] moves) {
+        return generateLegalMoves(color, moves, GEN_ALL);
+    }
+    
+    // Legal moves of one kind: GEN_CAPTURES (captures, en passant and every promotion),
+    // GEN_QUIETS (everything else, castling included) or GEN_ALL
+    public int generateLegalMoves(Color color, int[] moves, int genType) {
+        return generateLegalMoves(color, moves, genType, getOccupancy(color));
+    }
+    
+    // Strictly legal generation for the pieces in fromMask. Checkers and pins are worked
+    // out once; every piece then only gets the destinations it may legally use.
+    private int generateLegalMoves(Color color, int[] moves, int genType, long fromMask) {
+        Color enemy = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        long empty = ~occupied;
+        long promotionRank = (color == Color.WHITE) ? Bitboards.RANK_8 : Bitboards.RANK_1;
+        long epBit = enPassantSquare >= 0 ? 1L << enPassantSquare : 0L;
+        
+        // Pawns get their own mask: promotions count as captures, and en passant
+        // is asked for through its (empty) destination square
+        long targets;
+        long pawnTargets;
+        if (genType == GEN_CAPTURES) {
+            targets = getOccupancy(enemy);
+            pawnTargets = targets | (empty & promotionRank) | epBit;
+        } else if (genType == GEN_QUIETS) {
+            targets = empty;
+            pawnTargets = empty & ~promotionRank & ~epBit;
+        } else {
+            targets = ~0L;
+            pawnTargets = ~0L;
+        }
+        
+        int kingSquare = getKingSquare(color);
+        long checkers = getCheckers(color);
+        
+        int count = 0;
+        if ((fromMask & (1L << kingSquare)) != 0) {
+            count = board[kingSquare].generateMoves(kingSquare, this, targets, moves, 0);
+        }
+        if ((checkers & (checkers - 1)) != 0) {
+            return count; // Double check: only the king can move
+        }
+        if (checkers != 0) {
+            // Single check: capture the checker or block the line to it
+            long evasions = Bitboards.BETWEEN[kingSquare][Long.numberOfTrailingZeros(checkers)] | checkers;
+            targets &= evasions;
+            pawnTargets &= evasions | epBit;
+        }
+        
+        long pinned = getPinnedPieces(color);
+        long pawns = getPieces(color, PieceType.PAWN);
+        for (long pieces = fromMask & ~(1L << kingSquare); pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            long pieceTargets = (pawns & (1L << square)) != 0 ? pawnTargets : targets;
+            if ((pinned & (1L << square)) != 0) {
+                // A pinned piece can only slide along the pin line
+                pieceTargets &= Bitboards.LINE[kingSquare][square];
+            }
+            count = board[square].generateMoves(square, this, pieceTargets, moves, count);
+        }
+        return count;
+    }
+    
+    // Full legality test for a single move, e.g. a hash or killer move carried over
+    // from another position: regenerates the moving piece's legal moves and looks it up
+    public boolean isLegal(int move) {
+        int from = Move.fromSquare(move);
+        Piece piece = board[from];
+        if (piece == null || piece.getColor() != sideToMove) return false;
+        
+        int count = generateLegalMoves(sideToMove, legalityBuffer, GEN_ALL, 1L << from);
+        for (int i = 0; i < count; i++) {
+            if (legalityBuffer[i] == move) return true;
+        }
+        return false;
+    }
+    
+    // Legal moves of color that give check, for the attacking side of the mate solver.
+    // Only pieces that can reach a checking square, or uncover a check by moving, are
+    // generated at all; the rest is filtered with givesCheck.
+    public int generateChecks(Color color, int[] moves) {
+        Color enemy = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        int us = color.ordinal() * 6;
+        int kingSquare = getKingSquare(enemy);
+        long discoverers = getDiscoveredCheckCandidates(color);
+        long knightChecks = Bitboards.KNIGHT_ATTACKS[kingSquare];
+        long diagonalChecks = Bitboards.bishopAttacks(kingSquare, occupied);
+        long straightChecks = Bitboards.rookAttacks(kingSquare, occupied);
+
+        // Pawns and the king are always generated: promotions, en passant and castling
+        // check in too many ways to work out here
+        long fromMask = discoverers | pieceBitboards[us + PieceType.PAWN.ordinal()]
+                      | pieceBitboards[us + PieceType.KING.ordinal()];
+        for (long pieces = pieceBitboards[us + PieceType.KNIGHT.ordinal()] & ~discoverers; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            if ((Bitboards.KNIGHT_ATTACKS[square] & knightChecks) != 0) fromMask |= 1L << square;
+        }
+        for (long pieces = pieceBitboards[us + PieceType.BISHOP.ordinal()] & ~discoverers; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            if ((Bitboards.bishopAttacks(square, occupied) & diagonalChecks) != 0) fromMask |= 1L << square;
+        }
+        for (long pieces = pieceBitboards[us + PieceType.ROOK.ordinal()] & ~discoverers; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            if ((Bitboards.rookAttacks(square, occupied) & straightChecks) != 0) fromMask |= 1L << square;
+        }
+        // A queen can move along one kind of line and check along the other
+        for (long pieces = pieceBitboards[us + PieceType.QUEEN.ordinal()] & ~discoverers; pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            if ((Bitboards.queenAttacks(square, occupied) & (diagonalChecks | straightChecks)) != 0) fromMask |= 1L << square;
+        }
+
+        int count = generateLegalMoves(color, moves, GEN_ALL, fromMask);
+        int checks = 0;
+        for (int i = 0; i < count; i++) {
+            if (givesCheck(moves[i])) moves[checks++] = moves[i];
+        }
+        return checks;
+    }
+
+    // Pieces of color that are the only blocker between one of its sliders and the enemy king
+    private long getDiscoveredCheckCandidates(Color color) {
+        Color enemy = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        int kingSquare = getKingSquare(enemy);
+        int us = color.ordinal() * 6;
+        long queens = pieceBitboards[us + PieceType.QUEEN.ordinal()];
+        long snipers = (Bitboards.rookAttacks(kingSquare, 0L) & (pieceBitboards[us + PieceType.ROOK.ordinal()] | queens))
+                     | (Bitboards.bishopAttacks(kingSquare, 0L) & (pieceBitboards[us + PieceType.BISHOP.ordinal()] | queens));
+
+        long candidates = 0L;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Bitboards.BETWEEN[kingSquare][Long.numberOfTrailingZeros(snipers)] & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                candidates |= blockers & getOccupancy(color);
+            }
+        }
+        return candidates;
+    }
+
+    // Whether a legal move of the side to move checks the enemy king, worked out on
+    // bitboards without making it: directly from the destination, by the castling
+    // rook, or by a slider behind the vacated squares
+    public boolean givesCheck(int move) {
+        int from = Move.fromSquare(move);
+        int to = Move.toSquare(move);
+        int flags = Move.flags(move);
+        Color color = board[from].getColor();
+        Color enemy = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        int kingSquare = getKingSquare(enemy);
+        long kingBit = 1L << kingSquare;
+        int us = color.ordinal() * 6;
+
+        long occ = (occupied ^ (1L << from)) | (1L << to);
+        if ((flags & Move.EN_PASSANT) != 0) {
+            occ ^= 1L << (color == Color.WHITE ? to - 8 : to + 8);
+        }
+        if ((flags & Move.CASTLING) != 0) {
+            boolean kingside = to > from;
+            int rookFrom = kingside ? from + 3 : from - 4;
+            int rookTo = kingside ? to - 1 : to + 1;
+            occ = (occ ^ (1L << rookFrom)) | (1L << rookTo);
+            if ((Bitboards.rookAttacks(rookTo, occ) & kingBit) != 0) return true;
+        }
+
+        PieceType promotion = Move.promotion(move);
+        PieceType type = promotion != null ? promotion : board[from].getType();
+        switch (type) {
+            case PAWN:
+                if ((Bitboards.PAWN_ATTACKS[color.ordinal()][to] & kingBit) != 0) return true;
+                break;
+            case KNIGHT:
+                if ((Bitboards.KNIGHT_ATTACKS[to] & kingBit) != 0) return true;
+                break;
+            case BISHOP:
+                if ((Bitboards.bishopAttacks(to, occ) & kingBit) != 0) return true;
+                break;
+            case ROOK:
+                if ((Bitboards.rookAttacks(to, occ) & kingBit) != 0) return true;
+                break;
+            case QUEEN:
+                if ((Bitboards.queenAttacks(to, occ) & kingBit) != 0) return true;
+                break;
+            default:
+                break; // a king never checks
+        }
+
+        // Discovered: our sliders that are still on the board and now see the king
+        long queens = pieceBitboards[us + PieceType.QUEEN.ordinal()];
+        long diagonal = (pieceBitboards[us + PieceType.BISHOP.ordinal()] | queens) & occ;
+        long straight = (pieceBitboards[us + PieceType.ROOK.ordinal()] | queens) & occ;
+        return (Bitboards.bishopAttacks(kingSquare, occ) & diagonal) != 0
+            || (Bitboards.rookAttacks(kingSquare, occ) & straight) != 0;
+    }
+
+    // Enemy pieces giving check to color's king
+    public long getCheckers(Color color) {
+        Color enemy = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        return getAttackers(getKingSquare(color), enemy);
+    }
+    
+    // Pieces of color that are the only blocker between their king and an enemy slider
+    public long getPinnedPieces(Color color) {
+        int kingSquare = getKingSquare(color);
+        int enemy = (color == Color.WHITE) ? 6 : 0;
+        long queens = pieceBitboards[enemy + PieceType.QUEEN.ordinal()];
+        long snipers = (Bitboards.rookAttacks(kingSquare, 0L) & (pieceBitboards[enemy + PieceType.ROOK.ordinal()] | queens))
+                     | (Bitboards.bishopAttacks(kingSquare, 0L) & (pieceBitboards[enemy + PieceType.BISHOP.ordinal()] | queens));
+        
+        long pinned = 0L;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Bitboards.BETWEEN[kingSquare][Long.numberOfTrailingZeros(snipers)] & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & getOccupancy(color);
+            }
+        }
+        return pinned;
+    }
+    
+    // En passant takes two pieces off one rank, so the pin test above can't see a
+    // king and enemy rook on that rank; test the position after the capture directly.
+    public boolean isEnPassantLegal(int from, int to) {
+        Color color = board[from].getColor();
+        Color enemy = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        int captureSquare = (color == Color.WHITE) ? to - 8 : to + 8;
+        long capturedBit = 1L << captureSquare;
+        long occupiedAfter = (occupied ^ (1L << from) ^ capturedBit) | (1L << to);
+        return (attackersTo(getKingSquare(color), occupiedAfter) & getOccupancy(enemy) & ~capturedBit) == 0;
+    }
+    
+    public boolean isCheckmate(Color color) {
+        return isInCheck(color) && generateLegalMoves(color, moveBuffer(0)) == 0;
+    }
+
+    public boolean isStalemate(Color color) {
+        return !isInCheck(color) && generateLegalMoves(color, moveBuffer(0)) == 0;
+    }
+
+    public void display() {
+        System.out.println("  a b c d e f g h");
+        for (int row = 0; row < 8; row++) {
+            System.out.print((8 - row) + " ");
+            for (int col = 0; col < 8; col++) {
+                Piece piece = board[(7 - row) * 8 + col];
+                char symbol = piece != null ? piece.getSymbol() : '.';
+                System.out.print(symbol + " ");
+            }
+            System.out.println(8 - row);
+        }
+        System.out.println("  a b c d e f g h");
+    }
+
+    // Set up the board from a FEN string
+    public void setFromFEN(String fen) {
+        // Clear board
+        for (long pieces = occupied; pieces != 0; pieces &= pieces - 1) {
+            board[Long.numberOfTrailingZeros(pieces)] = null;
+        }
+        for (int i = 0; i < 12; i++) {
+            pieceBitboards[i] = 0L;
+        }
+        colorBitboards[0] = colorBitboards[1] = 0L;
+        occupied = 0L;
+        midgameScore = endgameScore = phase = 0;
+        undoCount = 0;
+
+        String[] parts = fen.split(" ");
+        String[] rows = parts[0].split("/");
+        for (int r = 0; r < 8; r++) {
+            int c = 0;
+            for (char ch : rows[r].toCharArray()) {
+                if (Character.isDigit(ch)) {
+                    c += ch - '0';
+                } else {
+                    Color color = Character.isUpperCase(ch) ? Color.WHITE : Color.BLACK;
+                    PieceType type;
+                    switch (Character.toLowerCase(ch)) {
+                        case 'k': type = PieceType.KING; break;
+                        case 'q': type = PieceType.QUEEN; break;
+                        case 'r': type = PieceType.ROOK; break;
+                        case 'b': type = PieceType.BISHOP; break;
+                        case 'n': type = PieceType.KNIGHT; break;
+                        case 'p': type = PieceType.PAWN; break;
+                        default: continue;
+                    }
+                    setPiece((7 - r) * 8 + c, createPiece(color, type));
+                    c++;
+                }
+            }
+        }
+
+        // Side to move
+        sideToMove = (parts.length > 1 && parts[1].equals("b")) ? Color.BLACK : Color.WHITE;
+        
+        // Castling rights
+        castlingRights = 0;
+        if (parts.length > 2) {
+            String castling = parts[2];
+            if (castling.contains("K")) castlingRights |= WHITE_KINGSIDE;
+            if (castling.contains("Q")) castlingRights |= WHITE_QUEENSIDE;
+            if (castling.contains("k")) castlingRights |= BLACK_KINGSIDE;
+            if (castling.contains("q")) castlingRights |= BLACK_QUEENSIDE;
+        }
+
+        // En passant
+        if (parts.length > 3 && !parts[3].equals("-")) {
+            enPassantSquare = Bitboards.toSquare(new Position(parts[3]).square);
+        } else {
+            enPassantSquare = -1;
+        }
+        
+        zobristKey = computeZobristKey();
+    }
+
+    // Move list for one perft ply, allocated the first time a perft reaches that ply
+    private int[] moveBuffer(int ply) {
+        int[] buffer = moveBuffers[ply];
+        if (buffer == null) buffer = moveBuffers[ply] = new int[MAX_MOVES];
+        return buffer;
+    }
+
+    public long perft(Color color, int depth) {
+        return perft(color, depth, 0);
+    }
+
+    // Faster perft for deep validation runs: at depth 1 it returns the number of legal
+    // moves without making them, and with a table (may be null) it counts every
+    // (position, depth) subtree it has seen before only once
+    public long perftBulk(int depth, PerftTable table) {
+        return depth == 0 ? 1 : perftBulk(depth, table, 0);
+    }
+
+    private long perftBulk(int depth, PerftTable table, int ply) {
+        int[] moves = moveBuffer(ply);
+        if (depth == 1) return generateLegalMoves(sideToMove, moves);
+        if (table != null) {
+            long cached = table.probe(zobristKey, depth);
+            if (cached >= 0) return cached;
+        }
+        long nodes = 0;
+        int count = generateLegalMoves(sideToMove, moves);
+        for (int i = 0; i < count; i++) {
+            makeMove(moves[i]);
+            nodes += perftBulk(depth - 1, table, ply + 1);
+            undoMove();
+        }
+        if (table != null) table.store(zobristKey, depth, nodes);
+        return nodes;
+    }
+
+    private long perft(Color color, int depth, int ply) {
+        if (depth == 0) return 1;
+        long nodes = 0;
+        int[] moves = moveBuffer(ply);
+        int count = generateLegalMoves(color, moves);
+        Color nextColor = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        for (int i = 0; i < count; i++) {
+            makeMove(moves[i]);
+            nodes += perft(nextColor, depth - 1, ply + 1);
+            undoMove();
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,271 @@
+package chess;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Farms perft and analysis work out to Worker JVMs on this host, over loopback
+// sockets with the binary protocol described in Worker.
+//
+// Perft expands the position splitDepth plies deep and sends every resulting move
+// path as one task; analysis sends one search per EPD position. Each worker has a
+// thread here that takes the next task from a shared queue, so faster workers take
+// more of them. A worker that dies or drops its connection puts its task back at the
+// head of the queue, where the next free worker picks it up; the run only fails if
+// every worker is gone.
+// Usage: java chess.Coordinator perft <workers> <depth> [splitDepth] [fen]
+//        java chess.Coordinator scale <maxWorkers> <depth> [splitDepth] [fen]
+//        java chess.Coordinator analyse <workers> <depth> <file.epd>
+class Coordinator {
+    static final int DEFAULT_SPLIT_DEPTH = 2;
+    static final int WORKER_HASH_MB = 64;
+    static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final int ACCEPT_TIMEOUT_MS = 30_000;
+
+    private static final class Task {
+        final int id;
+        final String fen;
+        final int[] path; // perft: moves from fen to the subtree root; null for a search
+        final int depth;
+        long nodes;
+        int move;
+        int score;
+
+        Task(int id, String fen, int[] path, int depth) {
+            this.id = id;
+            this.fen = fen;
+            this.path = path;
+            this.depth = depth;
+        }
+    }
+
+    private final LinkedBlockingDeque<Task> pending = new LinkedBlockingDeque<>();
+    private final AtomicInteger remaining = new AtomicInteger();
+    private final AtomicInteger reassigned = new AtomicInteger();
+    private long connectMillis;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 3) {
+            System.out.println("Usage: java chess.Coordinator perft <workers> <depth> [splitDepth] [fen]");
+            System.out.println("       java chess.Coordinator scale <maxWorkers> <depth> [splitDepth] [fen]");
+            System.out.println("       java chess.Coordinator analyse <workers> <depth> <file.epd>");
+            return;
+        }
+        int workers = Integer.parseInt(args[1]);
+        int depth = Integer.parseInt(args[2]);
+        switch (args[0]) {
+            case "perft": {
+                int splitDepth = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_SPLIT_DEPTH;
+                String fen = args.length > 4 ? String.join(" ", Arrays.copyOfRange(args, 4, args.length)) : START_FEN;
+                perft(fen, depth, splitDepth, workers, true);
+                break;
+            }
+            case "scale": {
+                // 1..maxWorkers on the same tree; the first run is the baseline
+                int splitDepth = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_SPLIT_DEPTH;
+                String fen = args.length > 4 ? String.join(" ", Arrays.copyOfRange(args, 4, args.length)) : START_FEN;
+                long baseline = 0;
+                for (int n = 1; n <= workers; n++) {
+                    long elapsed = perft(fen, depth, splitDepth, n, false);
+                    if (n == 1) baseline = elapsed;
+                    System.out.printf("workers %2d  time %7d ms  speedup %.2f%n",
+                        n, elapsed / 1_000_000, (double) baseline / Math.max(1, elapsed));
+                }
+                break;
+            }
+            case "analyse":
+                analyse(Files.readAllLines(Paths.get(args[3])), depth, workers);
+                break;
+            default:
+                System.out.println("Unknown mode: " + args[0]);
+                break;
+        }
+    }
+
+    // Distributed divide; returns the time spent on the tasks, in nanoseconds
+    private static long perft(String fen, int depth, int splitDepth, int workers, boolean print)
+            throws IOException, InterruptedException {
+        ChessBoard board = new ChessBoard();
+        board.setFromFEN(fen);
+        List<Task> tasks = new ArrayList<>();
+        expand(board, fen, Math.max(1, Math.min(splitDepth, depth - 1)), depth, new int[0], tasks);
+
+        Coordinator coordinator = new Coordinator();
+        long elapsed = coordinator.run(tasks, workers);
+
+        // Sum the subtrees under each root move, in generation order
+        int[] moves = new int[ChessBoard.MAX_MOVES];
+        int count = board.generateLegalMoves(board.getSideToMove(), moves);
+        long[] nodes = new long[count];
+        long total = 0;
+        for (Task task : tasks) {
+            for (int i = 0; i < count; i++) {
+                if (task.path.length > 0 && moves[i] == task.path[0]) nodes[i] += task.nodes;
+            }
+            total += task.nodes;
+        }
+        if (print) {
+            for (int i = 0; i < count && depth > 0; i++) {
+                System.out.println(Move.toUCI(moves[i]) + ": " + nodes[i]);
+            }
+            System.out.println();
+            System.out.printf("Nodes searched: %d%n", total);
+        }
+        System.out.printf("workers %d  tasks %d  reassigned %d  nodes %,d  time %d ms  nps %,d  (startup %d ms)%n",
+            workers, tasks.size(), coordinator.reassigned.get(), total, elapsed / 1_000_000,
+            total * 1_000_000_000L / Math.max(1, elapsed), coordinator.connectMillis);
+        return elapsed;
+    }
+
+    // One perft task per move path of length plies; paths ending early in mate or
+    // stalemate have no leaves at full depth and are dropped
+    private static void expand(ChessBoard board, String fen, int plies, int depth, int[] path, List<Task> tasks) {
+        if (plies == 0 || depth == 0) {
+            tasks.add(new Task(tasks.size(), fen, path, depth));
+            return;
+        }
+        int[] moves = new int[ChessBoard.MAX_MOVES];
+        int count = board.generateLegalMoves(board.getSideToMove(), moves);
+        for (int i = 0; i < count; i++) {
+            int[] next = Arrays.copyOf(path, path.length + 1);
+            next[path.length] = moves[i];
+            board.makeMove(moves[i]);
+            expand(board, fen, plies - 1, depth - 1, next, tasks);
+            board.undoMove();
+        }
+    }
+
+    // One search per EPD line, printed in file order
+    private static void analyse(List<String> lines, int depth, int workers) throws IOException, InterruptedException {
+        List<Task> tasks = new ArrayList<>();
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            // The first four EPD fields are the position; the operations that follow don't matter here
+            String[] fields = line.split("\\s+");
+            String fen = String.join(" ", Arrays.copyOf(fields, Math.min(4, fields.length)));
+            tasks.add(new Task(tasks.size(), fen, null, depth));
+        }
+        Coordinator coordinator = new Coordinator();
+        long elapsed = coordinator.run(tasks, workers);
+
+        long total = 0;
+        for (Task task : tasks) {
+            System.out.printf("%s  bestmove %s  score cp %d  nodes %,d%n", task.fen,
+                task.move == 0 ? "(none)" : Move.toUCI(task.move), task.score, task.nodes);
+            total += task.nodes;
+        }
+        System.out.printf("workers %d  positions %d  reassigned %d  nodes %,d  time %d ms  nps %,d  (startup %d ms)%n",
+            workers, tasks.size(), coordinator.reassigned.get(), total, elapsed / 1_000_000,
+            total * 1_000_000_000L / Math.max(1, elapsed), coordinator.connectMillis);
+    }
+
+    // Starts the workers, runs every task and stops them again; returns the nanoseconds
+    // from the first task sent to the last result in, worker startup excluded
+    private long run(List<Task> tasks, int workers) throws IOException, InterruptedException {
+        pending.addAll(tasks);
+        remaining.set(tasks.size());
+        List<Process> processes = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+            for (int i = 0; i < workers; i++) {
+                processes.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Worker.class.getName(),
+                        String.valueOf(server.getLocalPort()), String.valueOf(WORKER_HASH_MB))
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start());
+            }
+            server.setSoTimeout(ACCEPT_TIMEOUT_MS);
+            List<Socket> sockets = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                sockets.add(socket);
+            }
+            connectMillis = (System.nanoTime() - start) / 1_000_000;
+
+            start = System.nanoTime();
+            for (Socket socket : sockets) {
+                Thread thread = new Thread(() -> serve(socket), "worker-" + (threads.size() + 1));
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } finally {
+            for (Process process : processes) {
+                if (!process.waitFor(1, TimeUnit.SECONDS)) process.destroyForcibly();
+            }
+        }
+        if (remaining.get() > 0) {
+            throw new IOException("All workers failed with " + remaining.get() + " tasks left");
+        }
+        return System.nanoTime() - start;
+    }
+
+    // Feeds one worker until the queue is done or the worker fails
+    private void serve(Socket socket) {
+        Task task = null;
+        try (Socket s = socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            String fen = null;
+            while (remaining.get() > 0) {
+                task = pending.poll(10, TimeUnit.MILLISECONDS);
+                if (task == null) continue; // others are still busy; one of them may fail
+                if (!task.fen.equals(fen)) {
+                    out.writeByte(Worker.POSITION);
+                    out.writeUTF(task.fen);
+                    fen = task.fen;
+                }
+                if (task.path != null) {
+                    out.writeByte(Worker.PERFT);
+                    out.writeInt(task.id);
+                    out.writeByte(task.depth);
+                    out.writeByte(task.path.length);
+                    for (int move : task.path) {
+                        out.writeInt(move);
+                    }
+                } else {
+                    out.writeByte(Worker.SEARCH);
+                    out.writeInt(task.id);
+                    out.writeByte(task.depth);
+                }
+                out.flush();
+
+                if (in.readInt() != task.id) throw new IOException("Result out of order");
+                task.nodes = in.readLong();
+                task.move = in.readInt();
+                task.score = in.readInt();
+                task = null;
+                remaining.decrementAndGet();
+            }
+            out.writeByte(Worker.QUIT);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println(Thread.currentThread().getName() + " lost, reassigning its task: " + e);
+            if (task != null) {
+                reassigned.incrementAndGet();
+                pending.addFirst(task);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
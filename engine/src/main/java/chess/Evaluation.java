@@ -0,0 +1,128 @@
+package chess;
+
+// Static evaluation in centipawns from the side to move's point of view.
+//
+// Material plus piece-square tables, tapered: every piece has a middlegame and an
+// endgame value for each square, and the two sums are blended by the game phase,
+// which runs from 24 with all minor and major pieces on the board down to 0 with
+// none left. ChessBoard keeps both sums and the phase up to date in setPiece, so
+// evaluate only blends them. The tables are written from White's side, a8 first, the
+// way a board is printed; black pieces use them mirrored and with the sign flipped.
+final class Evaluation {
+    static final int[] PIECE_VALUES = {0, 900, 500, 330, 320, 100}; // indexed by PieceType ordinal, king excluded
+    static final int[] ENDGAME_VALUES = {0, 950, 520, 310, 300, 120};
+    static final int[] PHASE_WEIGHTS = {0, 4, 2, 1, 1, 0};
+    static final int MAX_PHASE = 24;
+
+    private static final int[] PAWN_MIDGAME = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+         50,  50,  50,  50,  50,  50,  50,  50,
+         10,  10,  20,  30,  30,  20,  10,  10,
+          5,   5,  10,  25,  25,  10,   5,   5,
+          0,   0,   0,  20,  20,   0,   0,   0,
+          5,  -5, -10,   0,   0, -10,  -5,   5,
+          5,  10,  10, -20, -20,  10,  10,   5,
+          0,   0,   0,   0,   0,   0,   0,   0,
+    };
+    // Passers decide endgames: the further up the board, the more a pawn is worth
+    private static final int[] PAWN_ENDGAME = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+         60,  60,  60,  60,  60,  60,  60,  60,
+         35,  35,  35,  35,  35,  35,  35,  35,
+         20,  20,  20,  20,  20,  20,  20,  20,
+         10,  10,  10,  10,  10,  10,  10,  10,
+          5,   5,   5,   5,   5,   5,   5,   5,
+          0,   0,   0,   0,   0,   0,   0,   0,
+          0,   0,   0,   0,   0,   0,   0,   0,
+    };
+    private static final int[] KNIGHT = {
+        -50, -40, -30, -30, -30, -30, -40, -50,
+        -40, -20,   0,   0,   0,   0, -20, -40,
+        -30,   0,  10,  15,  15,  10,   0, -30,
+        -30,   5,  15,  20,  20,  15,   5, -30,
+        -30,   0,  15,  20,  20,  15,   0, -30,
+        -30,   5,  10,  15,  15,  10,   5, -30,
+        -40, -20,   0,   5,   5,   0, -20, -40,
+        -50, -40, -30, -30, -30, -30, -40, -50,
+    };
+    private static final int[] BISHOP = {
+        -20, -10, -10, -10, -10, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,  10,  10,   5,   0, -10,
+        -10,   5,   5,  10,  10,   5,   5, -10,
+        -10,   0,  10,  10,  10,  10,   0, -10,
+        -10,  10,  10,  10,  10,  10,  10, -10,
+        -10,   5,   0,   0,   0,   0,   5, -10,
+        -20, -10, -10, -10, -10, -10, -10, -20,
+    };
+    private static final int[] ROOK = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+          5,  10,  10,  10,  10,  10,  10,   5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+          0,   0,   0,   5,   5,   0,   0,   0,
+    };
+    private static final int[] QUEEN = {
+        -20, -10, -10,  -5,  -5, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,   5,   5,   5,   0, -10,
+         -5,   0,   5,   5,   5,   5,   0,  -5,
+          0,   0,   5,   5,   5,   5,   0,  -5,
+        -10,   5,   5,   5,   5,   5,   0, -10,
+        -10,   0,   5,   0,   0,   0,   0, -10,
+        -20, -10, -10,  -5,  -5, -10, -10, -20,
+    };
+    // Behind the pawn shield while there are pieces to attack it
+    private static final int[] KING_MIDGAME = {
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -20, -30, -30, -40, -40, -30, -30, -20,
+        -10, -20, -20, -20, -20, -20, -20, -10,
+         20,  20,   0,   0,   0,   0,  20,  20,
+         20,  30,  10,   0,   0,  10,  30,  20,
+    };
+    // In the centre once they are gone
+    private static final int[] KING_ENDGAME = {
+        -50, -40, -30, -20, -20, -30, -40, -50,
+        -30, -20, -10,   0,   0, -10, -20, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -30,   0,   0,   0,   0, -30, -30,
+        -50, -30, -30, -30, -30, -30, -30, -50,
+    };
+
+    // Material plus table value of a piece on a square, [color * 6 + piece type][square],
+    // as ChessBoard indexes its bitboards; positive for White, negative for Black
+    static final int[][] MIDGAME = new int[12][64];
+    static final int[][] ENDGAME = new int[12][64];
+
+    static {
+        int[][] midgameTables = {KING_MIDGAME, QUEEN, ROOK, BISHOP, KNIGHT, PAWN_MIDGAME};
+        int[][] endgameTables = {KING_ENDGAME, QUEEN, ROOK, BISHOP, KNIGHT, PAWN_ENDGAME};
+        for (int type = 0; type < 6; type++) {
+            for (int square = 0; square < 64; square++) {
+                // Square 0 is a1, the tables start at a8
+                int white = square ^ 56;
+                MIDGAME[type][square] = PIECE_VALUES[type] + midgameTables[type][white];
+                ENDGAME[type][square] = ENDGAME_VALUES[type] + endgameTables[type][white];
+                MIDGAME[6 + type][square] = -(PIECE_VALUES[type] + midgameTables[type][square]);
+                ENDGAME[6 + type][square] = -(ENDGAME_VALUES[type] + endgameTables[type][square]);
+            }
+        }
+    }
+
+    private Evaluation() {}
+
+    public static int evaluate(ChessBoard board) {
+        int phase = Math.min(board.getPhase(), MAX_PHASE); // promotions can push it past the start
+        int score = (board.getMidgameScore() * phase + board.getEndgameScore() * (MAX_PHASE - phase)) / MAX_PHASE;
+        return board.getSideToMove() == Color.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,63 @@
+package chess;
+
+class King extends Piece {
+    public King(Color color) {
+        super(color, PieceType.KING);
+    }
+    
+    @Override
+    public char getSymbol() {
+        return color == Color.WHITE ? 'K' : 'k';
+    }
+    
+    // King moves are always legal: each destination is tested with the king
+    // lifted off the board, so it can't hide behind itself from a slider
+    @Override
+    public int generateMoves(int square, ChessBoard board, long targets, int[] moves, int count) {
+        Color enemy = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        long enemies = board.getOccupancy(enemy);
+        long occupiedWithoutKing = board.getOccupied() ^ (1L << square);
+        
+        long safe = 0L;
+        for (long candidates = Bitboards.KING_ATTACKS[square] & ~board.getOccupancy(color) & targets;
+                candidates != 0; candidates &= candidates - 1) {
+            int to = Long.numberOfTrailingZeros(candidates);
+            if ((board.attackersTo(to, occupiedWithoutKing) & enemies) == 0) {
+                safe |= 1L << to;
+            }
+        }
+        count = addMoves(moves, count, square, safe, board);
+        
+        // Castling: the king must still be on its home square with the right intact
+        int home = (color == Color.WHITE) ? 4 : 60;
+        if (square == home) {
+            if ((targets & (1L << (home + 2))) != 0 && board.canCastle(color, true) && canCastleBasic(board, home, true)) {
+                moves[count++] = Move.encode(home, home + 2, Move.CASTLING);
+            }
+            if ((targets & (1L << (home - 2))) != 0 && board.canCastle(color, false) && canCastleBasic(board, home, false)) {
+                moves[count++] = Move.encode(home, home - 2, Move.CASTLING);
+            }
+        }
+        
+        return count;
+    }
+    
+    private boolean canCastleBasic(ChessBoard board, int kingSquare, boolean kingside) {
+        int rookSquare = kingside ? kingSquare + 3 : kingSquare - 4;
+        Piece rook = board.getPiece(rookSquare);
+        
+        if (rook == null || rook.getType() != PieceType.ROOK || rook.getColor() != color) {
+            return false;
+        }
+        
+        // Check squares between king and rook are empty
+        long between = kingside ? (0x60L << (kingSquare - 4)) : (0x0EL << (kingSquare - 4));
+        if ((board.getOccupied() & between) != 0) return false;
+        
+        // King may not castle out of, through or into check
+        if (board.isSquareUnderAttack(kingSquare, color)) return false;
+        int step = kingside ? 1 : -1;
+        return !board.isSquareUnderAttack(kingSquare + step, color)
+            && !board.isSquareUnderAttack(kingSquare + 2 * step, color);
+    }
+}
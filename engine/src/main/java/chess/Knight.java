@@ -0,0 +1,18 @@
+package chess;
+
+class Knight extends Piece {
+    public Knight(Color color) {
+        super(color, PieceType.KNIGHT);
+    }
+    
+    @Override
+    public char getSymbol() {
+        return color == Color.WHITE ? 'N' : 'n';
+    }
+    
+    @Override
+    public int generateMoves(int square, ChessBoard board, long targets, int[] moves, int count) {
+        targets &= Bitboards.KNIGHT_ATTACKS[square] & ~board.getOccupancy(color);
+        return addMoves(moves, count, square, targets, board);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,395 @@
+package chess;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Tree-parallel Monte Carlo tree search with PUCT selection.
+//
+// Nodes live in a preallocated arena of parallel arrays; a node's children are one
+// contiguous block, so a node only stores where its block starts and how long it is.
+// All threads walk the same tree without locks: counters are updated atomically,
+// a node is expanded by whichever thread wins a CAS on its state, and every thread
+// adds a virtual loss to the nodes on its current path so the others spread out.
+// Leaves are scored statically (material plus the best exchange on offer) rather
+// than by random playouts. The tree is kept between searches when the new root is
+// a few moves below the old one: that subtree is compacted to the front of the arena
+// and everything else is dropped.
+class MCTSEngine implements SearchEngine {
+    public static final int DEFAULT_CAPACITY = 1 << 21; // nodes, about 64 MB
+    public static final long DEFAULT_PLAYOUTS = 200_000;
+
+    private static final int NEW = 0;
+    private static final int EXPANDING = 1;
+    private static final int EXPANDED = 2;
+
+    private static final double EXPLORATION = 1.5; // PUCT constant
+    private static final double FIRST_PLAY_VALUE = 0.45; // value assumed for unvisited children
+    private static final int VIRTUAL_LOSS = 3;
+    private static final long VALUE_SCALE = 1 << 16; // values are summed as fixed point
+    private static final int MAX_REUSE_PLIES = 4;
+    private static final int BATCH = 16; // playouts a thread does between updates of the shared counter
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final SearchOptions options;
+    private final int capacity;
+
+    // The arena, indexed by node
+    private final int[] moves;
+    private final float[] priors;
+    private final int[] visits;
+    private final long[] values; // sum of results for the side that played moves[node]
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] states;
+    private final AtomicInteger nodeCount = new AtomicInteger();
+
+    private int root = -1;
+    private long rootKey;
+    private final AtomicLong playouts = new AtomicLong();
+    private volatile boolean stopped;
+    private Move ponderMove; // most visited reply to the last best move
+
+    public MCTSEngine(SearchOptions options, int capacity) {
+        this.options = options;
+        this.capacity = capacity;
+        moves = new int[capacity];
+        priors = new float[capacity];
+        visits = new int[capacity];
+        values = new long[capacity];
+        firstChild = new int[capacity];
+        childCount = new int[capacity];
+        states = new int[capacity];
+    }
+
+    // Forgets the tree, e.g. for a new game
+    public void clear() {
+        root = -1;
+    }
+
+    @Override
+    public Move getBestMove(ChessBoard board, Color color, SearchLimits limits) {
+        long limit = limits.nodes > 0 ? limits.nodes : DEFAULT_PLAYOUTS;
+        long start = System.nanoTime();
+        int[] rootMoves = new int[ChessBoard.MAX_MOVES];
+        boolean singleReply = board.generateLegalMoves(board.getSideToMove(), rootMoves) == 1;
+        TimeManager timeManager = new TimeManager(limits, color, options.moveOverhead, singleReply);
+        stopped = false;
+        playouts.set(0);
+
+        int reused = findReusableRoot(board);
+        if (reused > 0) {
+            compact(reused);
+        } else if (reused < 0) {
+            nodeCount.set(0);
+            allocate(1);
+            moves[0] = 0;
+        }
+        root = 0;
+        rootKey = board.getZobristKey();
+        int visitsBefore = visits[root];
+
+        Thread[] helpers = new Thread[Math.max(1, options.threads) - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            ChessBoard copy = new ChessBoard(board);
+            helpers[i] = new Thread(() -> work(copy, limits, limit, start, null), "mcts-helper-" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+        work(new ChessBoard(board), limits, limit, start, timeManager);
+        stopped = true;
+        for (Thread helper : helpers) {
+            try {
+                helper.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (options.printInfo) {
+            long elapsed = System.nanoTime() - start;
+            printInfo(start);
+            UCIOutput.info(String.format("info string mcts %d playouts, %d visits/s, %d reused, %d of %d nodes used",
+                playouts.get(), playouts.get() * 1_000_000_000L / Math.max(1, elapsed),
+                visitsBefore, Math.min(nodeCount.get(), capacity), capacity));
+        }
+        if (limits.stop.get()) timeManager.setStopReason("stop");
+        timeManager.report("playouts " + playouts.get(), options.printInfo, options.timeLog);
+        int best = bestChild(root);
+        int reply = best < 0 ? -1 : bestChild(best);
+        ponderMove = reply < 0 || visits[reply] == 0 ? null : new Move(moves[reply]);
+        return best < 0 ? null : new Move(moves[best]);
+    }
+
+    @Override
+    public Move getPonderMove() {
+        return ponderMove;
+    }
+
+    // Playouts finished by the last search, all threads together
+    public long getPlayouts() {
+        return playouts.get();
+    }
+
+    // One search thread: playouts until the shared count reaches limit. The main
+    // thread, the one given the time manager, also ends the search at its soft limit;
+    // there are no iterations here, so that is the planned time for the move.
+    private void work(ChessBoard board, SearchLimits limits, long limit, long start, TimeManager timeManager) {
+        boolean main = timeManager != null;
+        int[] moveBuffer = new int[ChessBoard.MAX_MOVES];
+        int[] path = new int[ChessBoard.MAX_PLY];
+        long lastReport = start;
+        while (!stopped && !limits.stop.get()) {
+            for (int i = 0; i < BATCH; i++) {
+                playout(board, moveBuffer, path);
+            }
+            if (playouts.addAndGet(BATCH) >= limit) {
+                stopped = true;
+            }
+            if (main && timeManager.softLimitReached()) {
+                stopped = true;
+            }
+            if (main && options.printInfo) {
+                if (System.nanoTime() - lastReport > 1_000_000_000L) {
+                    lastReport = System.nanoTime();
+                    printInfo(start);
+                }
+                UCIOutput.poll();
+            }
+        }
+    }
+
+    private void playout(ChessBoard board, int[] moveBuffer, int[] path) {
+        // Selection: follow PUCT through expanded nodes, leaving a virtual loss on each step
+        int node = root;
+        int depth = 0;
+        path[0] = node;
+        INTS.getAndAdd(visits, node, 1);
+        while ((int) INTS.getAcquire(states, node) == EXPANDED && childCount[node] > 0 && depth < ChessBoard.MAX_PLY - 2) {
+            node = selectChild(node);
+            INTS.getAndAdd(visits, node, VIRTUAL_LOSS);
+            board.makeMove(moves[node]);
+            path[++depth] = node;
+        }
+
+        // Expansion and evaluation; value is for the side to move at the leaf
+        double value;
+        if ((int) INTS.getAcquire(states, node) == EXPANDED) {
+            // No children means mate or stalemate; otherwise the path hit the ply limit
+            value = childCount[node] == 0 ? terminalValue(board) : evaluate(board, moveBuffer);
+        } else if (nodeCount.get() < capacity && INTS.compareAndSet(states, node, NEW, EXPANDING)) {
+            value = expand(board, node, moveBuffer);
+        } else {
+            value = evaluate(board, moveBuffer); // another thread is expanding it, or the arena is full
+        }
+
+        // Backpropagation: swap the virtual loss for the real result, alternating sides
+        for (int i = depth; i > 0; i--) {
+            value = 1.0 - value;
+            int n = path[i];
+            LONGS.getAndAdd(values, n, (long) (value * VALUE_SCALE));
+            INTS.getAndAdd(visits, n, 1 - VIRTUAL_LOSS);
+            board.undoMove();
+        }
+    }
+
+    private int selectChild(int node) {
+        int first = firstChild[node];
+        int last = first + childCount[node];
+        double sqrtParent = Math.sqrt(Math.max(1, (int) INTS.getOpaque(visits, node)));
+        int best = first;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < last; child++) {
+            int n = (int) INTS.getOpaque(visits, child);
+            double q = n > 0 ? (double) (long) LONGS.getOpaque(values, child) / VALUE_SCALE / n : FIRST_PLAY_VALUE;
+            double score = q + EXPLORATION * priors[child] * sqrtParent / (1 + n);
+            if (score > bestScore) {
+                bestScore = score;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    // Generates the node's children with priors and scores the position. Children are
+    // published by the release store of the state, after their fields are written.
+    private double expand(ChessBoard board, int node, int[] moveBuffer) {
+        int count = board.generateLegalMoves(board.getSideToMove(), moveBuffer);
+        if (count == 0) {
+            childCount[node] = 0;
+            INTS.setRelease(states, node, EXPANDED);
+            return terminalValue(board);
+        }
+        int first = allocate(count);
+        if (first < 0) {
+            // Arena full: the tree stops growing, playouts still refine what is there
+            INTS.setRelease(states, node, NEW);
+            return evaluate(board, moveBuffer);
+        }
+
+        // Priors: a softmax over cheap move features, favouring winning captures and promotions
+        int bestExchange = 0;
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moveBuffer[i];
+            double feature = 0;
+            if (Move.isCapture(move) || Move.isPromotion(move)) {
+                int see = board.see(move);
+                bestExchange = Math.max(bestExchange, see);
+                feature = see >= 0 ? 1.0 + see / 400.0 : -0.5;
+            }
+            double weight = Math.exp(feature);
+            moves[first + i] = move;
+            priors[first + i] = (float) weight;
+            sum += weight;
+        }
+        for (int i = 0; i < count; i++) {
+            priors[first + i] /= sum;
+        }
+        firstChild[node] = first;
+        childCount[node] = count;
+        INTS.setRelease(states, node, EXPANDED);
+        return winProbability(Evaluation.evaluate(board) + bestExchange);
+    }
+
+    private double evaluate(ChessBoard board, int[] moveBuffer) {
+        int count = board.generateLegalMoves(board.getSideToMove(), moveBuffer, ChessBoard.GEN_CAPTURES);
+        int bestExchange = 0;
+        for (int i = 0; i < count; i++) {
+            bestExchange = Math.max(bestExchange, board.see(moveBuffer[i]));
+        }
+        return winProbability(Evaluation.evaluate(board) + bestExchange);
+    }
+
+    private static double terminalValue(ChessBoard board) {
+        return board.getCheckers(board.getSideToMove()) != 0 ? 0.0 : 0.5;
+    }
+
+    // Logistic mapping from centipawns to an expected result in [0, 1]
+    private static double winProbability(int centipawns) {
+        return 1.0 / (1.0 + Math.exp(-centipawns / 400.0));
+    }
+
+    private static int centipawns(double winProbability) {
+        double p = Math.min(Math.max(winProbability, 1e-6), 1 - 1e-6);
+        return (int) Math.round(400.0 * Math.log(p / (1 - p)));
+    }
+
+    // Reserves count fresh nodes, or returns -1 when the arena is full
+    private int allocate(int count) {
+        int first = nodeCount.getAndAdd(count);
+        if (first + count > capacity) {
+            return -1;
+        }
+        for (int i = first; i < first + count; i++) {
+            visits[i] = 0;
+            values[i] = 0;
+            childCount[i] = 0;
+            states[i] = NEW;
+        }
+        return first;
+    }
+
+    // The node for the board's position if the old tree contains it: the board's
+    // history must lead back to the old root within a few moves
+    private int findReusableRoot(ChessBoard board) {
+        if (root < 0) return -1;
+        int history = board.getHistorySize();
+        for (int plies = 0; plies <= Math.min(MAX_REUSE_PLIES, history); plies++) {
+            ChessBoard earlier = new ChessBoard(board);
+            for (int i = 0; i < plies; i++) {
+                earlier.undoMove();
+            }
+            if (earlier.getZobristKey() != rootKey) continue;
+
+            int node = root;
+            for (int i = history - plies; i < history && node >= 0; i++) {
+                node = findChild(node, board.getHistoryMove(i));
+            }
+            if (node >= 0) return node;
+        }
+        return -1;
+    }
+
+    // Moves the subtree under newRoot to the front of the arena, breadth first so that
+    // each child block stays contiguous, and makes it the whole tree. Only runs
+    // between searches.
+    private void compact(int newRoot) {
+        int[] order = new int[Math.min(nodeCount.get(), capacity)]; // old index by new index
+        int[] newFirst = new int[order.length];
+        order[0] = newRoot;
+        int size = 1;
+        for (int i = 0; i < size; i++) {
+            int node = order[i];
+            newFirst[i] = size;
+            if (states[node] == EXPANDED) {
+                for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+                    order[size++] = child;
+                }
+            }
+        }
+
+        // Read everything before writing, since old and new slots overlap
+        int[] newMoves = new int[size];
+        float[] newPriors = new float[size];
+        int[] newVisits = new int[size];
+        long[] newValues = new long[size];
+        int[] newChildCount = new int[size];
+        int[] newStates = new int[size];
+        for (int i = 0; i < size; i++) {
+            int node = order[i];
+            newMoves[i] = moves[node];
+            newPriors[i] = priors[node];
+            newVisits[i] = visits[node];
+            newValues[i] = values[node];
+            newChildCount[i] = states[node] == EXPANDED ? childCount[node] : 0;
+            newStates[i] = states[node] == EXPANDED ? EXPANDED : NEW;
+        }
+        System.arraycopy(newMoves, 0, moves, 0, size);
+        System.arraycopy(newPriors, 0, priors, 0, size);
+        System.arraycopy(newVisits, 0, visits, 0, size);
+        System.arraycopy(newValues, 0, values, 0, size);
+        System.arraycopy(newChildCount, 0, childCount, 0, size);
+        System.arraycopy(newStates, 0, states, 0, size);
+        System.arraycopy(newFirst, 0, firstChild, 0, size);
+        nodeCount.set(size);
+    }
+
+    private int findChild(int node, int move) {
+        if (states[node] != EXPANDED) return -1;
+        for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+            if (moves[child] == move) return child;
+        }
+        return -1;
+    }
+
+    private int bestChild(int node) {
+        if (states[node] != EXPANDED) return -1;
+        int best = -1;
+        for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+            if (best < 0 || visits[child] > visits[best]) best = child;
+        }
+        return best;
+    }
+
+    private void printInfo(long start) {
+        long elapsed = System.nanoTime() - start;
+        long done = playouts.get();
+        int best = bestChild(root);
+        StringBuilder info = new StringBuilder("info nodes ").append(done)
+            .append(" nps ").append(done * 1_000_000_000L / Math.max(1, elapsed))
+            .append(" time ").append(elapsed / 1_000_000);
+        if (best >= 0 && visits[best] > 0) {
+            info.append(" score cp ").append(centipawns((double) values[best] / VALUE_SCALE / visits[best]));
+        }
+        info.append(" pv");
+        for (int node = best, plies = 0; node >= 0 && visits[node] > 0 && plies < ChessBoard.MAX_PLY;
+                node = bestChild(node), plies++) {
+            info.append(' ').append(Move.toUCI(moves[node]));
+        }
+        UCIOutput.info(info.toString());
+    }
+}
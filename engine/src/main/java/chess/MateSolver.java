@@ -0,0 +1,279 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Proves forced mates for "go mate N" with depth-first proof-number search (df-pn).
+//
+// The side to move is the attacker; the defender plays every legal move. Puzzles
+// are first tried with checking moves only for the attacker, which keeps the tree
+// narrow and settles most forced mates, then with every attacker move for quiet
+// keys. Either way the attacker's last move must be a check. An attacker node (OR)
+// is proven when one move leads to a proven node, a defender node (AND) when all of
+// them do. Proof and disproof numbers estimate how many leaves are still needed
+// either way, and the search always expands the cheapest node to settle, within
+// thresholds, so it only keeps the current path on the stack. Numbers are stored
+// negamax style: phi is the proof number at OR nodes and the disproof number at AND
+// nodes, delta the other one.
+//
+// A mate in N has to be found within 2N - 1 plies. The remaining depth is mixed into
+// every table key, so an entry proven or disproven at one depth is never mistaken
+// for one at another and the search can't cycle; the checks-only pass has keys of its
+// own as well. Mates in 1, 2, ... N are tried in turn, which finds the shortest mate
+// and costs little next to the last attempt.
+class MateSolver {
+    public static final int MAX_MATE = (ChessBoard.MAX_PLY - 2) / 2;
+    public static final int DEFAULT_TABLE_MB = 32;
+
+    private static final int INFINITE = 100_000_000; // phi or delta of a solved node
+    private static final int ENTRY_BYTES = 16;
+    private static final int STOP_CHECK_INTERVAL = 1024; // nodes, a power of two
+    private static final long[] DEPTH_KEYS = new long[ChessBoard.MAX_PLY];
+    private static final long CHECKS_ONLY_KEY;
+
+    static {
+        Random random = new Random(0x6D617465L);
+        for (int i = 0; i < DEPTH_KEYS.length; i++) {
+            DEPTH_KEYS[i] = random.nextLong();
+        }
+        CHECKS_ONLY_KEY = random.nextLong();
+    }
+
+    // Node table, direct mapped: key (position key ^ depth key), phi, delta.
+    // A lost entry only costs a re-search of that node.
+    private final long[] keys;
+    private final int[] phis;
+    private final int[] deltas;
+    private final int mask;
+
+    // Per ply: the moves of the node being searched and the last known numbers of its children
+    private final int[][] moves = new int[ChessBoard.MAX_PLY][ChessBoard.MAX_MOVES];
+    private final int[][] childPhi = new int[ChessBoard.MAX_PLY][ChessBoard.MAX_MOVES];
+    private final int[][] childDelta = new int[ChessBoard.MAX_PLY][ChessBoard.MAX_MOVES];
+
+    private ChessBoard board;
+    private SearchLimits limits;
+    private TimeManager timeManager;
+    private long nodes;
+    private boolean aborted;
+    private boolean checksOnly;
+    // Numbers of the node the last mid() call searched, in case its entry gets overwritten
+    private int lastPhi;
+    private int lastDelta;
+
+    public MateSolver(int tableMb) {
+        int entries = Integer.highestOneBit((int) Math.min(1L << 30, Math.max(1L, (long) tableMb << 20) / ENTRY_BYTES));
+        keys = new long[entries];
+        phis = new int[entries];
+        deltas = new int[entries];
+        mask = entries - 1;
+    }
+
+    public long getTableBytes() {
+        return (long) keys.length * ENTRY_BYTES;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+    }
+
+    // The mating line for the side to move in at most mateIn moves, or null when there
+    // is none or the search was stopped (limits.stop, nodes, movetime or the clock)
+    public int[] solve(ChessBoard board, int mateIn, SearchLimits limits, int moveOverhead) {
+        this.board = board;
+        this.limits = limits;
+        this.timeManager = new TimeManager(limits, board.getSideToMove(), moveOverhead, false);
+        nodes = 0;
+        aborted = false;
+
+        checksOnly = true;
+        int[] line = iterate(1, mateIn);
+        if (line == null && !aborted) {
+            checksOnly = false;
+            line = iterate(2, mateIn); // a mate in 1 is a check, already ruled out
+        }
+        return aborted ? null : line;
+    }
+
+    private int[] iterate(int from, int mateIn) {
+        for (int n = from; n <= Math.min(mateIn, MAX_MATE); n++) {
+            int depth = 2 * n - 1;
+            if (!evaluate(true, depth, key(depth))) {
+                return null; // no move for the attacker at all
+            }
+            mid(true, depth, INFINITE, INFINITE, 0);
+            if (aborted) return null;
+            if (lastPhi == 0) return extractLine(depth);
+        }
+        return null;
+    }
+
+    private long key(int depth) {
+        long key = board.getZobristKey() ^ DEPTH_KEYS[depth];
+        return checksOnly ? key ^ CHECKS_ONLY_KEY : key;
+    }
+
+    // The attacker's candidate moves; only a check can mate on the last move
+    private int generateAttacks(int depth, int[] list) {
+        return checksOnly || depth == 1 ? board.generateChecks(board.getSideToMove(), list)
+                                        : board.generateLegalMoves(board.getSideToMove(), list);
+    }
+
+    // Searches the current position until phi >= thresholdPhi or delta >= thresholdDelta
+    private void mid(boolean attacker, int depth, int thresholdPhi, int thresholdDelta, int ply) {
+        if ((++nodes & (STOP_CHECK_INTERVAL - 1)) == 0) checkStop();
+        if (aborted) return;
+
+        long key = key(depth);
+        int[] list = moves[ply];
+        int count = attacker ? generateAttacks(depth, list) : board.generateLegalMoves(board.getSideToMove(), list);
+        int[] phi = childPhi[ply];
+        int[] delta = childDelta[ply];
+        for (int i = 0; i < count; i++) {
+            board.makeMove(list[i]);
+            long childKey = key(depth - 1);
+            int index = (int) childKey & mask;
+            if (keys[index] != childKey) evaluate(!attacker, depth - 1, childKey);
+            board.undoMove();
+            phi[i] = phis[index];
+            delta[i] = deltas[index];
+        }
+
+        while (true) {
+            // phi is the smallest child delta, delta the sum of child phis
+            int minDelta = INFINITE;
+            int secondDelta = INFINITE;
+            int best = -1;
+            long sumPhi = 0;
+            for (int i = 0; i < count; i++) {
+                sumPhi += phi[i];
+                if (delta[i] < minDelta) {
+                    secondDelta = minDelta;
+                    minDelta = delta[i];
+                    best = i;
+                } else if (delta[i] < secondDelta) {
+                    secondDelta = delta[i];
+                }
+            }
+            int nodePhi = minDelta;
+            int nodeDelta = (int) Math.min(sumPhi, INFINITE);
+            if (nodePhi >= thresholdPhi || nodeDelta >= thresholdDelta || best < 0) {
+                store(key, nodePhi, nodeDelta);
+                return;
+            }
+
+            // The child may use our delta slack, and must give way once it is no longer
+            // the cheapest; the extra quarter (1 + epsilon) keeps it from switching back
+            // and forth between two children of nearly equal cost
+            int childThresholdPhi = (int) Math.min((long) thresholdDelta - nodeDelta + phi[best], INFINITE);
+            int childThresholdDelta = (int) Math.min(thresholdPhi, secondDelta + 1L + secondDelta / 4);
+            board.makeMove(list[best]);
+            mid(!attacker, depth - 1, childThresholdPhi, childThresholdDelta, ply + 1);
+            board.undoMove();
+            if (aborted) return;
+            phi[best] = lastPhi;
+            delta[best] = lastDelta;
+        }
+    }
+
+    // Sets up the table entry for a position seen for the first time: solved if it is
+    // terminal, otherwise numbers from its mobility. Returns false if it is a dead end
+    // for the attacker (an OR node without candidate moves).
+    private boolean evaluate(boolean attacker, int depth, long key) {
+        int[] buffer = moves[ChessBoard.MAX_PLY - 1];
+        Color side = board.getSideToMove();
+        if (attacker) {
+            int attacks = generateAttacks(depth, buffer);
+            if (attacks == 0) {
+                store(key, INFINITE, 0); // disproven: nothing left to try
+                return false;
+            }
+            store(key, 1, attacks); // proven by one move, refuted only by refuting all
+            return true;
+        }
+        int replies = board.generateLegalMoves(side, buffer);
+        boolean inCheck = board.getCheckers(side) != 0;
+        if (replies == 0 && inCheck) {
+            store(key, INFINITE, 0); // mated: proven for the attacker
+        } else if (replies == 0 || depth == 0) {
+            store(key, 0, INFINITE); // stalemate, or out of moves without mate
+        } else {
+            store(key, 1, replies);
+        }
+        return true;
+    }
+
+    private void store(long key, int phi, int delta) {
+        int index = (int) key & mask;
+        keys[index] = key;
+        phis[index] = phi;
+        deltas[index] = delta;
+        lastPhi = phi;
+        lastDelta = delta;
+    }
+
+    // Whether the current position is proven at depth; re-searched if its entry was overwritten
+    private boolean isProven(boolean attacker, int depth, int ply) {
+        long key = key(depth);
+        int index = (int) key & mask;
+        if (keys[index] != key) {
+            evaluate(attacker, depth, key);
+            if (keys[index] == key && phis[index] != 0 && deltas[index] != 0) {
+                mid(attacker, depth, INFINITE, INFINITE, ply);
+            }
+        }
+        // Proven for the attacker: phi 0 at OR nodes, delta 0 at AND nodes
+        return keys[index] == key ? (attacker ? phis[index] : deltas[index]) == 0
+                                  : (attacker ? lastPhi : lastDelta) == 0;
+    }
+
+    // Follows proven nodes from the root: any proving move for the attacker, and for
+    // the defender the reply that holds out longest, so the line is as long as the mate
+    private int[] extractLine(int depth) {
+        int[] line = new int[depth];
+        int length = 0;
+        boolean attacker = true;
+        int[] list = new int[ChessBoard.MAX_MOVES];
+        while (depth > 0 && !aborted) {
+            int count = attacker ? generateAttacks(depth, list) : board.generateLegalMoves(board.getSideToMove(), list);
+            int chosen = 0;
+            int chosenDepth = -1;
+            for (int i = 0; i < count; i++) {
+                board.makeMove(list[i]);
+                if (attacker) {
+                    if (isProven(false, depth - 1, length + 1)) chosen = list[i];
+                } else if (chosenDepth < depth - 1) {
+                    // The least depth that still mates after this reply; proven at depth - 1
+                    int need = 1;
+                    while (need < depth - 1 && !isProven(true, need, length + 1)) need += 2;
+                    if (need > chosenDepth) {
+                        chosen = list[i];
+                        chosenDepth = need;
+                    }
+                }
+                board.undoMove();
+                if (attacker && chosen != 0) break;
+            }
+            if (chosen == 0) break; // mate on the board, or the search was stopped
+            line[length++] = chosen;
+            board.makeMove(chosen);
+            attacker = !attacker;
+            depth--;
+        }
+        for (int i = 0; i < length; i++) {
+            board.undoMove();
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    private void checkStop() {
+        if (limits.stop.get() || (limits.nodes > 0 && nodes >= limits.nodes) || timeManager.hardLimitReached()) {
+            aborted = true;
+        }
+        UCIOutput.poll();
+    }
+}
@@ -0,0 +1,103 @@
+package chess;
+
+class Move {
+    // Search and perft work on moves packed into an int:
+    // bits 0-5 from square, 6-11 to square (Bitboards numbering), 12-15 flags,
+    // 16-18 promotion piece (PieceType ordinal + 1, 0 for none)
+    public static final int CAPTURE = 1;
+    public static final int EN_PASSANT = 2;
+    public static final int CASTLING = 4;
+    public static final int DOUBLE_PUSH = 8;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    public Position from, to;
+    public boolean isEnPassant;
+    public boolean isCastling;
+    public PieceType promotionPiece;
+
+    public Move(Position from, Position to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public Move(Position from, Position to, PieceType promotionPiece) {
+        this.from = from;
+        this.to = to;
+        this.promotionPiece = promotionPiece;
+        this.isEnPassant = false;
+        this.isCastling = false;
+    }
+
+    public Move(String fromNotation, String toNotation) {
+        this.from = new Position(fromNotation);
+        this.to = new Position(toNotation);
+    }
+
+    public Move(int move) {
+        this.from = new Position(Bitboards.toMailbox(fromSquare(move)));
+        this.to = new Position(Bitboards.toMailbox(toSquare(move)));
+        this.promotionPiece = promotion(move);
+        this.isEnPassant = (flags(move) & EN_PASSANT) != 0;
+        this.isCastling = (flags(move) & CASTLING) != 0;
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int encode(int from, int to, int flags, PieceType promotion) {
+        int move = encode(from, to, flags);
+        return promotion == null ? move : move | ((promotion.ordinal() + 1) << 16);
+    }
+
+    public static int fromSquare(int move) {
+        return move & 0x3F;
+    }
+
+    public static int toSquare(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & (CAPTURE << 12)) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move >>> 16) != 0;
+    }
+
+    public static PieceType promotion(int move) {
+        int promotion = move >>> 16;
+        return promotion == 0 ? null : PIECE_TYPES[promotion - 1];
+    }
+
+    public static String toUCI(int move) {
+        return new Move(move).toUCI();
+    }
+
+    @Override
+    public String toString() {
+        return from.toNotation() + "-" + to.toNotation();
+    }
+
+    public String toUCI() {
+        String uciMove = from.toNotation() + to.toNotation();
+
+        // Add promotion piece if applicable
+        if (promotionPiece != null) {
+            switch (promotionPiece) {
+                case QUEEN: uciMove += "q"; break;
+                case ROOK: uciMove += "r"; break;
+                case BISHOP: uciMove += "b"; break;
+                case KNIGHT: uciMove += "n"; break;
+            }
+        }
+
+        return uciMove;
+    }
+}
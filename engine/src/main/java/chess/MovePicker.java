@@ -0,0 +1,145 @@
+package chess;
+
+// Hands out the legal moves of one node in stages, best guesses first:
+//   1. the transposition table move
+//   2. captures and promotions, most valuable victim / least valuable attacker first
+//   3. the two killer moves of this ply
+//   4. quiet moves, ordered by the butterfly history table
+// A stage is only generated once the previous one is used up, so a cutoff on an
+// early move never pays for generating (or sorting) the quiet moves.
+// Quiescence search uses a captures-only picker that stops after stage 2.
+class MovePicker {
+    private static final int STAGE_TT_MOVE = 0;
+    private static final int STAGE_GENERATE_CAPTURES = 1;
+    private static final int STAGE_CAPTURES = 2;
+    private static final int STAGE_KILLER_1 = 3;
+    private static final int STAGE_KILLER_2 = 4;
+    private static final int STAGE_GENERATE_QUIETS = 5;
+    private static final int STAGE_QUIETS = 6;
+    private static final int STAGE_DONE = 7;
+
+    private final int[] moves = new int[ChessBoard.MAX_MOVES];
+    private final int[] scores = new int[ChessBoard.MAX_MOVES];
+    private int count;
+    private int index;
+    private int stage;
+
+    private ChessBoard board;
+    private int ttMove;
+    private int killer1;
+    private int killer2;
+    private int[][] history; // [color * 64 + from][to]
+    private boolean capturesOnly;
+
+    public void init(ChessBoard board, int ttMove, int killer1, int killer2, int[][] history) {
+        this.board = board;
+        this.ttMove = ttMove;
+        this.killer1 = killer1;
+        this.killer2 = killer2;
+        this.history = history;
+        this.capturesOnly = false;
+        this.stage = STAGE_TT_MOVE;
+    }
+
+    // Captures and promotions only, for quiescence search
+    public void initCaptures(ChessBoard board) {
+        this.board = board;
+        this.ttMove = 0;
+        this.capturesOnly = true;
+        this.stage = STAGE_GENERATE_CAPTURES;
+    }
+
+    // Returns the next legal move, or 0 when there are none left. Each stage falls
+    // through into the next one on purpose once it has nothing left to give.
+    @SuppressWarnings("fallthrough")
+    public int next() {
+        switch (stage) {
+            case STAGE_TT_MOVE:
+                stage = STAGE_GENERATE_CAPTURES;
+                if (ttMove != 0 && board.isLegal(ttMove)) return ttMove;
+                // fall through
+            case STAGE_GENERATE_CAPTURES:
+                count = board.generateLegalMoves(board.getSideToMove(), moves, ChessBoard.GEN_CAPTURES);
+                index = 0;
+                scoreCaptures();
+                stage = STAGE_CAPTURES;
+                // fall through
+            case STAGE_CAPTURES:
+                while (index < count) {
+                    int move = pickBest();
+                    if (move != ttMove) return move;
+                }
+                if (capturesOnly) {
+                    stage = STAGE_DONE;
+                    return 0;
+                }
+                stage = STAGE_KILLER_1;
+                // fall through
+            case STAGE_KILLER_1:
+                stage = STAGE_KILLER_2;
+                if (isUsableKiller(killer1)) return killer1;
+                // fall through
+            case STAGE_KILLER_2:
+                stage = STAGE_GENERATE_QUIETS;
+                if (killer2 != killer1 && isUsableKiller(killer2)) return killer2;
+                // fall through
+            case STAGE_GENERATE_QUIETS:
+                count = board.generateLegalMoves(board.getSideToMove(), moves, ChessBoard.GEN_QUIETS);
+                index = 0;
+                scoreQuiets();
+                stage = STAGE_QUIETS;
+                // fall through
+            case STAGE_QUIETS:
+                while (index < count) {
+                    int move = pickBest();
+                    if (move != ttMove && move != killer1 && move != killer2) return move;
+                }
+                stage = STAGE_DONE;
+                // fall through
+            default:
+                return 0;
+        }
+    }
+
+    // Killers come from sibling positions, so they are only tried if they are
+    // quiet here too (captures were already searched) and legal
+    private boolean isUsableKiller(int killer) {
+        return killer != 0 && killer != ttMove && !Move.isCapture(killer) && !Move.isPromotion(killer)
+            && board.isLegal(killer);
+    }
+
+    private void scoreCaptures() {
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            Piece attacker = board.getPiece(Move.fromSquare(move));
+            Piece victim = board.getPiece(Move.toSquare(move));
+            int victimValue = victim != null ? Evaluation.PIECE_VALUES[victim.getType().ordinal()]
+                            : Move.isCapture(move) ? Evaluation.PIECE_VALUES[PieceType.PAWN.ordinal()] : 0; // en passant
+            PieceType promotion = Move.promotion(move);
+            if (promotion != null) victimValue += Evaluation.PIECE_VALUES[promotion.ordinal()];
+            // Victim value dominates; the attacker only breaks ties (kings count as cheapest to keep it simple)
+            scores[i] = victimValue * 16 - Evaluation.PIECE_VALUES[attacker.getType().ordinal()] / 100;
+        }
+    }
+
+    private void scoreQuiets() {
+        int base = board.getSideToMove().ordinal() * 64;
+        for (int i = 0; i < count; i++) {
+            scores[i] = history[base + Move.fromSquare(moves[i])][Move.toSquare(moves[i])];
+        }
+    }
+
+    // One step of selection sort: swaps the best remaining move to index and returns it
+    private int pickBest() {
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        int move = moves[best];
+        moves[best] = moves[index];
+        scores[best] = scores[index];
+        moves[index] = move;
+        index++;
+        return move;
+    }
+}
@@ -0,0 +1,63 @@
+package chess;
+
+class Pawn extends Piece {
+    private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+    
+    public Pawn(Color color) {
+        super(color, PieceType.PAWN);
+    }
+    
+    @Override
+    public char getSymbol() {
+        return color == Color.WHITE ? 'P' : 'p';
+    }
+    
+    @Override
+    public int generateMoves(int square, ChessBoard board, long targets, int[] moves, int count) {
+        int direction = (color == Color.WHITE) ? 8 : -8; // Up/down one rank
+        long promotionRank = (color == Color.WHITE) ? Bitboards.RANK_8 : Bitboards.RANK_1;
+        long empty = ~board.getOccupied();
+        
+        // Forward move
+        int oneForward = square + direction;
+        if ((empty & (1L << oneForward)) != 0) {
+            count = addPawnMoves(moves, count, square, targets & (1L << oneForward), 0, promotionRank);
+            // Two squares forward from starting position
+            int twoForward = oneForward + direction;
+            int startRank = (color == Color.WHITE) ? 1 : 6;
+            if (square / 8 == startRank && (empty & targets & (1L << twoForward)) != 0) {
+                moves[count++] = Move.encode(square, twoForward, Move.DOUBLE_PUSH);
+            }
+        }
+
+        // Captures (including promotions)
+        Color enemy = (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        long attacks = Bitboards.PAWN_ATTACKS[color.ordinal()][square];
+        count = addPawnMoves(moves, count, square, attacks & targets & board.getOccupancy(enemy), Move.CAPTURE, promotionRank);
+        
+        // En passant - diagonal square must match en passant target, and either the target
+        // or the pawn it removes must be an allowed destination. It takes two pieces off the
+        // board (and can answer a check by the pushed pawn), so the board tests it as a whole.
+        int epSquare = board.getEnPassantSquare();
+        if (epSquare >= 0 && (attacks & empty & (1L << epSquare)) != 0
+                && (targets & ((1L << epSquare) | (1L << (epSquare - direction)))) != 0
+                && board.isEnPassantLegal(square, epSquare)) {
+            moves[count++] = Move.encode(square, epSquare, Move.CAPTURE | Move.EN_PASSANT);
+        }
+        return count;
+    }
+    
+    private int addPawnMoves(int[] moves, int count, int square, long targets, int flags, long promotionRank) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (((1L << to) & promotionRank) != 0) {
+                for (PieceType promotion : PROMOTIONS) {
+                    moves[count++] = Move.encode(square, to, flags, promotion);
+                }
+            } else {
+                moves[count++] = Move.encode(square, to, flags);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,136 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Parallel perft on a ForkJoinPool. The tree is split into one task per move for the
+// first splitPlies plies; every task makes its move on its own copy of the board, and
+// below the split the remaining subtree runs serially on that copy, checking the stop
+// flag at every node until SERIAL_DEPTH and then handing over to ChessBoard.perft.
+// Shallow subtrees are never split, their copies would cost more than the work.
+//
+// With a PerftTable the subtrees use ChessBoard.perftBulk instead, sharing the table
+// across threads; without one every leaf is made and unmade, as the reference count.
+class Perft {
+    public static final int DEFAULT_SPLIT_PLIES = 2;
+    private static final int SERIAL_DEPTH = 3; // subtrees this shallow run in ChessBoard, without stop checks
+
+    private final ForkJoinPool pool;
+    private final int splitPlies;
+    private final PerftTable table; // null for plain perft
+
+    public Perft(int threads, int splitPlies, PerftTable table) {
+        this.pool = new ForkJoinPool(Math.max(1, threads));
+        this.splitPlies = Math.max(1, splitPlies);
+        this.table = table;
+    }
+
+    public PerftTable getTable() {
+        return table;
+    }
+
+    public int getThreads() {
+        return pool.getParallelism();
+    }
+
+    // Divide: fills moves with the legal root moves and returns the node count below each,
+    // in the same order. When stop is set the counts are incomplete and should be dropped.
+    public long[] divide(ChessBoard board, int depth, int[] moves, AtomicBoolean stop) {
+        int count = board.generateLegalMoves(board.getSideToMove(), moves);
+        long[] nodes = new long[count];
+        if (depth <= 0) return nodes;
+
+        List<ForkJoinTask<Long>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ChessBoard copy = new ChessBoard(board);
+            copy.makeMove(moves[i]);
+            tasks.add(pool.submit(new PerftTask(copy, depth - 1, splitPlies - 1, table, stop)));
+        }
+        for (int i = 0; i < count; i++) {
+            nodes[i] = tasks.get(i).join();
+        }
+        return nodes;
+    }
+
+    public long perft(ChessBoard board, int depth, AtomicBoolean stop) {
+        if (depth == 0) return 1;
+        long total = 0;
+        for (long nodes : divide(board, depth, new int[ChessBoard.MAX_MOVES], stop)) {
+            total += nodes;
+        }
+        return total;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static final class PerftTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final ChessBoard board;
+        private final int depth;
+        private final int splitPlies;
+        private final PerftTable table;
+        private final AtomicBoolean stop;
+
+        PerftTask(ChessBoard board, int depth, int splitPlies, PerftTable table, AtomicBoolean stop) {
+            this.board = board;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+            this.table = table;
+            this.stop = stop;
+        }
+
+        @Override
+        protected Long compute() {
+            if (stop.get()) return 0L;
+            if (splitPlies <= 0 || depth <= SERIAL_DEPTH) {
+                return serial(depth, new int[Math.max(0, depth - SERIAL_DEPTH)][], 0);
+            }
+            // Subtrees already counted by another task are taken from the table
+            long cached = table != null ? table.probe(board.getZobristKey(), depth) : -1;
+            if (cached >= 0) return cached;
+            int[] moves = new int[ChessBoard.MAX_MOVES];
+            int count = board.generateLegalMoves(board.getSideToMove(), moves);
+            PerftTask[] children = new PerftTask[count];
+            for (int i = 0; i < count; i++) {
+                ChessBoard copy = new ChessBoard(board);
+                copy.makeMove(moves[i]);
+                children[i] = new PerftTask(copy, depth - 1, splitPlies - 1, table, stop);
+            }
+            invokeAll(children);
+            long nodes = 0;
+            for (PerftTask child : children) {
+                nodes += child.join();
+            }
+            if (table != null && !stop.get()) table.store(board.getZobristKey(), depth, nodes);
+            return nodes;
+        }
+
+        // The unsplit rest of the subtree on this task's board; counts are partial once stopped
+        private long serial(int depth, int[][] moves, int ply) {
+            if (depth <= SERIAL_DEPTH) {
+                return table != null ? board.perftBulk(depth, table) : board.perft(board.getSideToMove(), depth);
+            }
+            if (stop.get()) return 0L;
+            long cached = table != null ? table.probe(board.getZobristKey(), depth) : -1;
+            if (cached >= 0) return cached;
+            if (moves[ply] == null) moves[ply] = new int[ChessBoard.MAX_MOVES];
+            int[] list = moves[ply];
+            int count = board.generateLegalMoves(board.getSideToMove(), list);
+            long nodes = 0;
+            for (int i = 0; i < count; i++) {
+                board.makeMove(list[i]);
+                nodes += serial(depth - 1, moves, ply + 1);
+                board.undoMove();
+            }
+            if (table != null && !stop.get()) table.store(board.getZobristKey(), depth, nodes);
+            return nodes;
+        }
+    }
+}
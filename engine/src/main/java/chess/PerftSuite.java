@@ -0,0 +1,157 @@
+package chess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Perft regression suite over an EPD file, one position per line with the expected
+// node counts per depth, in the usual perftsuite form:
+//   <fen> ;D1 20 ;D2 400 ;D3 8902
+// Lines are read one at a time, so a suite of thousands of positions starts at once.
+// Every position is checked up to maxDepth with ChessBoard.perft; with -detail the
+// leaves are also split into captures (en passant included), en passant, castles,
+// promotions, checks and mates, as in the chessprogramming wiki tables. The summary
+// line and the optional CSV (one row per position and depth) are machine-readable,
+// so runs can be compared across builds. Exits with 1 if any count is wrong.
+// Usage: java chess.PerftSuite <file.epd> [maxDepth] [-detail] [-csv file]
+class PerftSuite {
+    private static final int MAX_DEPTH = 64;
+
+    // Leaf counts of one detailed perft
+    private static final class Counts {
+        long nodes, captures, enPassant, castles, promotions, checks, mates;
+    }
+
+    private final ChessBoard board = new ChessBoard();
+    private final int[][] moves = new int[MAX_DEPTH][ChessBoard.MAX_MOVES];
+    private final int[] replies = new int[ChessBoard.MAX_MOVES];
+
+    public static void main(String[] args) throws IOException {
+        String path = null;
+        String csvPath = null;
+        int maxDepth = MAX_DEPTH;
+        boolean detail = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-detail")) {
+                detail = true;
+            } else if (args[i].equals("-csv") && i + 1 < args.length) {
+                csvPath = args[++i];
+            } else if (path == null) {
+                path = args[i];
+            } else {
+                maxDepth = Math.min(MAX_DEPTH, Integer.parseInt(args[i]));
+            }
+        }
+        if (path == null) {
+            System.out.println("Usage: java chess.PerftSuite <file.epd> [maxDepth] [-detail] [-csv file]");
+            return;
+        }
+
+        PerftSuite suite = new PerftSuite();
+        boolean passed;
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(path));
+             PrintWriter csv = csvPath != null ? new PrintWriter(Files.newBufferedWriter(Paths.get(csvPath))) : null) {
+            passed = suite.run(in, maxDepth, detail, csv);
+        }
+        if (!passed) System.exit(1);
+    }
+
+    private boolean run(BufferedReader in, int maxDepth, boolean detail, PrintWriter csv) throws IOException {
+        if (csv != null) {
+            csv.println("position,depth,expected,nodes,result,ms,nps,captures,enpassant,castles,promotions,checks,mates");
+        }
+        int positions = 0;
+        int checked = 0;
+        int failed = 0;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] fields = line.split(";");
+            positions++;
+            board.setFromFEN(fields[0].trim());
+            System.out.println("#" + positions + " " + fields[0].trim());
+
+            for (int f = 1; f < fields.length; f++) {
+                String[] operand = fields[f].trim().split("\\s+");
+                if (operand.length < 2 || !operand[0].matches("[Dd]\\d+")) continue;
+                int depth = Integer.parseInt(operand[0].substring(1));
+                if (depth > maxDepth || depth < 1) continue;
+                long expected = Long.parseLong(operand[1]);
+
+                Counts counts = null;
+                long start = System.nanoTime();
+                long nodes;
+                if (detail) {
+                    counts = new Counts();
+                    count(depth, 0, counts);
+                    nodes = counts.nodes;
+                } else {
+                    nodes = board.perft(board.getSideToMove(), depth);
+                }
+                long elapsed = System.nanoTime() - start;
+                long nps = nodes * 1_000_000_000L / Math.max(1, elapsed);
+
+                boolean ok = nodes == expected;
+                checked++;
+                if (!ok) failed++;
+                totalNodes += nodes;
+                totalNanos += elapsed;
+
+                System.out.printf("  D%-2d nodes %,15d  %-8s time %7d ms  nps %,d%n",
+                    depth, nodes, ok ? "ok" : "FAIL", elapsed / 1_000_000, nps);
+                if (!ok) System.out.printf("       expected %,d%n", expected);
+                if (counts != null) {
+                    System.out.printf("       captures %,d  e.p. %,d  castles %,d  promotions %,d  checks %,d  mates %,d%n",
+                        counts.captures, counts.enPassant, counts.castles, counts.promotions, counts.checks, counts.mates);
+                }
+                if (csv != null) {
+                    csv.printf("%d,%d,%d,%d,%s,%d,%d", positions, depth, expected, nodes, ok ? "ok" : "fail",
+                        elapsed / 1_000_000, nps);
+                    if (counts != null) {
+                        csv.printf(",%d,%d,%d,%d,%d,%d%n", counts.captures, counts.enPassant, counts.castles,
+                            counts.promotions, counts.checks, counts.mates);
+                    } else {
+                        csv.println(",,,,,,");
+                    }
+                }
+            }
+        }
+        System.out.printf("summary positions=%d depths=%d failed=%d nodes=%d ms=%d nps=%d%n", positions, checked,
+            failed, totalNodes, totalNanos / 1_000_000, totalNodes * 1_000_000_000L / Math.max(1, totalNanos));
+        return failed == 0;
+    }
+
+    // Perft that classifies every leaf by the move leading to it
+    private void count(int depth, int ply, Counts counts) {
+        int[] list = moves[ply];
+        int count = board.generateLegalMoves(board.getSideToMove(), list);
+        if (depth > 1) {
+            for (int i = 0; i < count; i++) {
+                board.makeMove(list[i]);
+                count(depth - 1, ply + 1, counts);
+                board.undoMove();
+            }
+            return;
+        }
+        counts.nodes += count;
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            int flags = Move.flags(move);
+            if ((flags & Move.CAPTURE) != 0) counts.captures++;
+            if ((flags & Move.EN_PASSANT) != 0) counts.enPassant++;
+            if ((flags & Move.CASTLING) != 0) counts.castles++;
+            if (Move.isPromotion(move)) counts.promotions++;
+            if (board.givesCheck(move)) {
+                counts.checks++;
+                board.makeMove(move);
+                if (board.generateLegalMoves(board.getSideToMove(), replies) == 0) counts.mates++;
+                board.undoMove();
+            }
+        }
+    }
+}
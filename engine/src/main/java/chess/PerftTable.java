@@ -0,0 +1,92 @@
+package chess;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+// Node counts of perft subtrees by (position key, depth), shared by all perft threads.
+//
+// Laid out like the transposition table: buckets of four 16-byte entries, each entry
+// two longs, (key ^ data) and data, with data = nodes << 8 | depth. Each long is read
+// and written atomically; a probe only trusts an entry whose words XOR back to its key,
+// so a write torn by another thread reads as a miss. No locks are taken. A full bucket
+// gives up its shallowest entry, which saves the least work when hit.
+class PerftTable {
+    private static final int ENTRY_LONGS = 2;
+    private static final int ENTRIES_PER_BUCKET = 4;
+    private static final int BUCKET_LONGS = ENTRY_LONGS * ENTRIES_PER_BUCKET;
+    private static final int DEPTH_MASK = 0xFF;
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] table;
+    private final long bucketMask;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    // Rounds down to a power-of-two number of buckets, at most 8 GB
+    public PerftTable(int megabytes) {
+        long longs = Math.min(1L << 30, Math.max(BUCKET_LONGS, (long) megabytes * 1024 * 1024 / 8));
+        long buckets = Long.highestOneBit(longs / BUCKET_LONGS);
+        table = new long[(int) (buckets * BUCKET_LONGS)];
+        bucketMask = buckets - 1;
+    }
+
+    public long getBytes() {
+        return (long) table.length * 8;
+    }
+
+    // The node count stored for key at depth, or -1
+    public long probe(long key, int depth) {
+        probes.increment();
+        int base = (int) (key & bucketMask) * BUCKET_LONGS;
+        for (int i = base; i < base + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = (long) LONGS.getOpaque(table, i + 1);
+            if ((data & DEPTH_MASK) == depth && ((long) LONGS.getOpaque(table, i) ^ data) == key) {
+                hits.increment();
+                return data >>> 8;
+            }
+        }
+        return -1;
+    }
+
+    public void store(long key, int depth, long nodes) {
+        int base = (int) (key & bucketMask) * BUCKET_LONGS;
+        int replace = base;
+        int replaceDepth = Integer.MAX_VALUE;
+        for (int i = base; i < base + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = (long) LONGS.getOpaque(table, i + 1);
+            int entryDepth = (int) (data & DEPTH_MASK);
+            if (entryDepth == depth && ((long) LONGS.getOpaque(table, i) ^ data) == key) {
+                replace = i;
+                break;
+            }
+            if (entryDepth < replaceDepth) {
+                replace = i;
+                replaceDepth = entryDepth;
+            }
+        }
+        long data = nodes << 8 | depth;
+        LONGS.setOpaque(table, replace, key ^ data);
+        LONGS.setOpaque(table, replace + 1, data);
+    }
+
+    public void clear() {
+        for (int i = 0; i < table.length; i++) {
+            LONGS.setOpaque(table, i, 0L);
+        }
+        resetStatistics();
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public void resetStatistics() {
+        probes.reset();
+        hits.reset();
+    }
+}
@@ -0,0 +1,47 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Abstract base class for all chess pieces
+// Pieces carry no per-game state, so ChessBoard shares one instance per color and type
+abstract class Piece {
+    protected Color color;
+    protected PieceType type;
+    
+    public Piece(Color color, PieceType type) {
+        this.color = color;
+        this.type = type;
+    }
+    
+    public Color getColor() { return color; }
+    public PieceType getType() { return type; }
+    
+    // Writes int moves into moves starting at count and returns the new count.
+    // Only destinations inside targets are generated; ChessBoard narrows targets
+    // for pins and checks, which makes the moves legal (the king checks its own safety).
+    public abstract int generateMoves(int square, ChessBoard board, long targets, int[] moves, int count);
+    public abstract char getSymbol();
+    
+    public List<Move> getPossibleMoves(Position pos, ChessBoard board) {
+        int[] buffer = new int[ChessBoard.MAX_MOVES];
+        int count = generateMoves(Bitboards.toSquare(pos.square), board, ~0L, buffer, 0);
+        List<Move> moves = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            moves.add(new Move(buffer[i]));
+        }
+        return moves;
+    }
+    
+    // Adds a move from square to every square set in the targets bitboard
+    protected int addMoves(int[] moves, int count, int square, long targets, ChessBoard board) {
+        long occupied = board.getOccupied();
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            int flags = (occupied & (1L << to)) != 0 ? Move.CAPTURE : 0;
+            moves[count++] = Move.encode(square, to, flags);
+            targets &= targets - 1;
+        }
+        return count;
+    }
+}
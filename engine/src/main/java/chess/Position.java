@@ -1,6 +1,6 @@
-// ChessGame.java - Complete Chess Game Implementation
+package chess;
 
-import java.util.*;
+// ChessGame.java - Complete Chess Game Implementation
 
 // Enum for piece colors
 enum Color {
@@ -60,6 +60,6 @@ class Position {
     
     @Override
     public int hashCode() {
-        return Objects.hash(square);
+        return square;
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package chess;
+
+class Queen extends Piece {
+    public Queen(Color color) {
+        super(color, PieceType.QUEEN);
+    }
+
+    @Override
+    public char getSymbol() {
+        return color == Color.WHITE ? 'Q' : 'q';
+    }
+
+    @Override
+    public int generateMoves(int square, ChessBoard board, long targets, int[] moves, int count) {
+        targets &= Bitboards.queenAttacks(square, board.getOccupied()) & ~board.getOccupancy(color);
+        return addMoves(moves, count, square, targets, board);
+    }
+}
\ No newline at end of file
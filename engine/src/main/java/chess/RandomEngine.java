@@ -1,7 +1,9 @@
+package chess;
+
 import java.util.List;
 import java.util.Random;
 
-class RandomEngine {
+class RandomEngine implements SearchEngine {
     private Random random;
     
     public RandomEngine() {
@@ -12,6 +14,11 @@ class RandomEngine {
         this.random = new Random(seed);
     }
     
+    @Override
+    public Move getBestMove(ChessBoard board, Color color, SearchLimits limits) {
+        return getBestMove(board, color);
+    }
+    
     public Move getBestMove(ChessBoard board, Color color) {
         List<Move> legalMoves = board.getAllLegalMoves(color);
         
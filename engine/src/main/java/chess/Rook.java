@@ -0,0 +1,18 @@
+package chess;
+
+class Rook extends Piece {
+    public Rook(Color color) {
+        super(color, PieceType.ROOK);
+    }
+
+    @Override
+    public char getSymbol() {
+        return color == Color.WHITE ? 'R' : 'r';
+    }
+
+    @Override
+    public int generateMoves(int square, ChessBoard board, long targets, int[] moves, int count) {
+        targets &= Bitboards.rookAttacks(square, board.getOccupied()) & ~board.getOccupancy(color);
+        return addMoves(moves, count, square, targets, board);
+    }
+}
@@ -0,0 +1,12 @@
+package chess;
+
+// Anything UCIEngine can ask for a move: the alpha-beta search or the random mover
+interface SearchEngine {
+    // Returns the chosen move for color, or null when it has no legal moves
+    Move getBestMove(ChessBoard board, Color color, SearchLimits limits);
+
+    // The expected reply to the last move returned, for "bestmove ... ponder", or null
+    default Move getPonderMove() {
+        return null;
+    }
+}
@@ -0,0 +1,26 @@
+package chess;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Limits parsed from a UCI "go" command
+class SearchLimits {
+    public static final int DEFAULT_DEPTH = 6;
+
+    public int depth = DEFAULT_DEPTH;
+    public long nodes; // 0 for no limit; MCTS counts playouts
+
+    // Clock in milliseconds, 0 when not given
+    public long whiteTime;
+    public long blackTime;
+    public long whiteIncrement;
+    public long blackIncrement;
+    public int movesToGo;
+    public long moveTime;
+
+    public int[] searchMoves; // "go searchmoves": the root moves to consider, null for all
+    public int mate; // "go mate N": look for a mate in at most N moves, 0 for a normal search
+    // Set from another thread (UCI "stop") to end the search; engines poll it
+    public final AtomicBoolean stop = new AtomicBoolean();
+    // Set for "go ponder" and cleared on "ponderhit"; the clock only starts once it is clear
+    public final AtomicBoolean ponder = new AtomicBoolean();
+}
@@ -0,0 +1,18 @@
+package chess;
+
+// Settings for AlphaBetaEngine, set from UCI options: the number of search threads
+// and switches for the selective parts, so each technique can be turned off to
+// compare node counts and time to depth. Also the time settings used by TimeManager.
+class SearchOptions {
+    public int threads = 1;
+    public int multiPV = 1; // number of best root moves to report
+    public boolean nullMove = true;
+    public boolean lateMoveReductions = true;
+    public boolean reverseFutility = true;
+    public boolean futility = true;
+
+    public int moveOverhead = 30; // milliseconds kept back per move for GUI and network latency
+    public String timeLog = ""; // CSV file for the per-move time report, none when empty
+
+    public boolean printInfo = true; // UCI info lines; benchmarks turn them off
+}
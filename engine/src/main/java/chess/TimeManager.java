@@ -0,0 +1,176 @@
+package chess;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Decides how long one search may take from the clock of the side to move.
+//
+// The soft limit is the time we plan to spend: once it has passed no new
+// iteration is started. The hard limit is checked inside the search (on the
+// engine's node-count interval) and aborts it. Both are cut by MoveOverhead, the
+// time lost between us and the GUI. With a clock the soft limit is scaled after
+// every iteration: up when the best move keeps changing or the score drops, down
+// when the best move took nearly all of the nodes. A fixed movetime is used as is.
+// With a single legal reply the search stops as soon as it has a move to play.
+//
+// While pondering no limit applies; the clock starts when the search first sees
+// the ponder flag cleared by "ponderhit".
+class TimeManager {
+    private static final int DEFAULT_MOVES_TO_GO = 30; // assumed for sudden death
+    private static final int MAX_MOVES_TO_GO = 50;
+    private static final int HARD_FACTOR = 4; // hard limit as a multiple of the soft one
+    private static final double MAX_CLOCK_FRACTION = 0.75; // never plan beyond this share of the clock
+    private static final double MAX_SCALE = 2.5;
+
+    // Best-move effort needed before a move counts as dominant, and from which depth
+    private static final int DOMINANCE_MIN_DEPTH = 6;
+    private static final double DOMINANT_SHARE = 0.9;
+    private static final double CLEAR_SHARE = 0.75;
+    private static final int SCORE_DROP_RANGE = 150; // a drop this large doubles the time
+
+    private final AtomicBoolean pondering;
+    private boolean started;
+    private long start;
+    private long hardDeadline; // nanoTime
+    private final boolean timed;    // there is a clock or a movetime
+    private final boolean flexible; // clock based, so scaling applies
+    private final Color color;
+    private final long clock;
+    private final long increment;
+    private final int movesToGo;
+    private final boolean singleReply;
+    private int iterations;
+    private final long softLimit; // milliseconds
+    private final long hardLimit;
+
+    private double scale = 1.0;
+    private double bestMoveChanges;
+    private int previousBest;
+    private int previousScore;
+    private String stopReason = "limit";
+
+    public TimeManager(SearchLimits limits, Color color, int moveOverhead, boolean singleReply) {
+        this.pondering = limits.ponder;
+        this.singleReply = singleReply;
+        this.color = color;
+        this.clock = color == Color.WHITE ? limits.whiteTime : limits.blackTime;
+        this.increment = color == Color.WHITE ? limits.whiteIncrement : limits.blackIncrement;
+        this.movesToGo = limits.movesToGo;
+
+        if (limits.moveTime > 0) {
+            timed = true;
+            flexible = false;
+            softLimit = Math.max(1, limits.moveTime - moveOverhead);
+            hardLimit = softLimit;
+        } else if (clock > 0) {
+            timed = true;
+            flexible = true;
+            long available = Math.max(1, clock - moveOverhead);
+            int moves = movesToGo > 0 ? Math.min(movesToGo, MAX_MOVES_TO_GO) : DEFAULT_MOVES_TO_GO;
+            long max = Math.max(1, (long) (available * MAX_CLOCK_FRACTION));
+            hardLimit = Math.min(max, Math.max(1, (available / moves + increment * 3 / 4) * HARD_FACTOR));
+            softLimit = Math.min(hardLimit, Math.max(1, available / moves + increment * 3 / 4));
+        } else {
+            timed = false;
+            flexible = false;
+            softLimit = Long.MAX_VALUE;
+            hardLimit = Long.MAX_VALUE;
+        }
+        running();
+    }
+
+    // Starts the clock unless still pondering; false until it has started
+    private boolean running() {
+        if (!started) {
+            if (pondering.get()) return false;
+            started = true;
+            start = System.nanoTime();
+            hardDeadline = timed ? start + hardLimit * 1_000_000 : Long.MAX_VALUE;
+        }
+        return true;
+    }
+
+    public long elapsedMillis() {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    // Polled from the search's periodic stop check
+    public boolean hardLimitReached() {
+        if (!running()) return false;
+        if (timed && singleReply && iterations > 0) {
+            stopReason = "single reply";
+            return true;
+        }
+        if (System.nanoTime() < hardDeadline) return false;
+        stopReason = "hard";
+        return true;
+    }
+
+    public boolean softLimitReached() {
+        if (!timed || !running()) return false;
+        if (singleReply) {
+            stopReason = "single reply";
+            return true;
+        }
+        if (elapsedMillis() < scaledSoftLimit()) return false;
+        stopReason = "soft";
+        return true;
+    }
+
+    // Called after each completed iteration with its best move, score and the share
+    // of the iteration's nodes spent on that move; returns true to stop searching
+    public boolean iterationDone(int depth, int bestMove, int score, double bestMoveShare) {
+        iterations++;
+        if (!timed) return false;
+        // Track stability while pondering too, so the scale is ready at ponderhit
+        if (flexible) {
+            if (depth > 1) {
+                bestMoveChanges = bestMoveChanges / 2 + (bestMove != previousBest ? 1 : 0);
+                int drop = Math.max(0, Math.min(previousScore - score, SCORE_DROP_RANGE));
+                double dominance = depth < DOMINANCE_MIN_DEPTH ? 1.0
+                                 : bestMoveShare >= DOMINANT_SHARE ? 0.5
+                                 : bestMoveShare >= CLEAR_SHARE ? 0.75 : 1.0;
+                scale = Math.min(MAX_SCALE, (1 + bestMoveChanges) * (1 + (double) drop / SCORE_DROP_RANGE) * dominance);
+            }
+            previousBest = bestMove;
+            previousScore = score;
+        }
+        return softLimitReached();
+    }
+
+    // The engine stopped for a reason of its own (depth or node limit, GUI stop)
+    public void setStopReason(String reason) {
+        stopReason = reason;
+    }
+
+    private long scaledSoftLimit() {
+        return Math.min(hardLimit, (long) (softLimit * scale));
+    }
+
+    // Reports time used against the allocation as an info string and, when path is
+    // set, appends it as a CSV row for tuning
+    public void report(String searched, boolean printInfo, String path) {
+        if (!timed || !started) return; // a ponder search that never got a ponderhit
+        long used = elapsedMillis();
+        if (printInfo) {
+            UCIOutput.info(String.format("info string time used %d ms, soft %d ms (scaled %d), hard %d ms, %s, stop %s",
+                used, softLimit, scaledSoftLimit(), hardLimit, searched, stopReason));
+        }
+        if (path == null || path.isEmpty()) return;
+
+        File file = new File(path);
+        boolean header = !file.exists() || file.length() == 0;
+        try (Writer out = new FileWriter(file, true)) {
+            if (header) {
+                out.write("color,clock,increment,movestogo,soft,scaled,hard,used,searched,stop\n");
+            }
+            out.write(String.format("%s,%d,%d,%d,%d,%d,%d,%d,%s,%s%n", color, clock, increment, movesToGo,
+                softLimit, scaledSoftLimit(), hardLimit, used, searched, stopReason));
+        } catch (IOException e) {
+            UCIOutput.info("info string Could not write time log " + path + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package chess;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Transposition table shared by all search threads, stored off-heap in direct buffers.
+//
+// Buckets of four 16-byte entries fill one 64-byte cache line. An entry is two longs:
+// (key ^ data) and data. Each long is read and written atomically but the pair is not,
+// so a probe only trusts an entry whose two words XOR back to its own key; a torn write
+// from another thread then just looks like a miss. No locks are taken.
+class TranspositionTable {
+    public static final int BOUND_UPPER = 1; // score <= stored value (fail low)
+    public static final int BOUND_LOWER = 2; // score >= stored value (fail high)
+    public static final int BOUND_EXACT = 3;
+
+    private static final int BUCKET_BYTES = 64;
+    private static final int ENTRY_BYTES = 16;
+    private static final int ENTRIES_PER_BUCKET = 4;
+    private static final int HASHFULL_BUCKETS = 250; // 1000 entries sampled for hashfull
+    private static final long SEGMENT_BYTES = 1L << 30; // direct buffers are int-indexed, so split into 1 GB segments
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    // Packed data layout: bits 0-18 move, 19-20 bound, 21-26 age, 27-34 depth, 35-50 score
+    private static final int BOUND_SHIFT = 19;
+    private static final int AGE_SHIFT = 21;
+    private static final int DEPTH_SHIFT = 27;
+    private static final int SCORE_SHIFT = 35;
+    private static final int AGE_MASK = 63;
+
+    private ByteBuffer[] segments;
+    private long bucketMask;
+    private int age;
+
+    public TranspositionTable(int megabytes) {
+        resize(megabytes);
+    }
+
+    // Rounds down to a power-of-two number of buckets so indexing is a mask
+    public void resize(int megabytes) {
+        long buckets = Long.highestOneBit(Math.max(1L, (long) megabytes * 1024 * 1024 / BUCKET_BYTES));
+        long bytes = buckets * BUCKET_BYTES;
+        int segmentCount = (int) ((bytes + SEGMENT_BYTES - 1) / SEGMENT_BYTES);
+
+        ByteBuffer[] newSegments = new ByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            newSegments[i] = ByteBuffer.allocateDirect((int) Math.min(SEGMENT_BYTES, bytes - i * SEGMENT_BYTES));
+        }
+        segments = newSegments;
+        bucketMask = buckets - 1;
+        age = 0;
+    }
+
+    public void clear() {
+        for (ByteBuffer segment : segments) {
+            for (int offset = 0; offset < segment.capacity(); offset += 8) {
+                LONGS.setOpaque(segment, offset, 0L);
+            }
+        }
+        age = 0;
+    }
+
+    // Called once per search so entries from earlier searches are replaced first
+    public void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    // Returns the packed data for key, or 0 when there is no entry
+    public long probe(long key) {
+        long bucket = (key & bucketMask) * BUCKET_BYTES;
+        ByteBuffer segment = segments[(int) (bucket / SEGMENT_BYTES)];
+        int base = (int) (bucket % SEGMENT_BYTES);
+        for (int i = 0; i < ENTRIES_PER_BUCKET; i++) {
+            int offset = base + i * ENTRY_BYTES;
+            long data = (long) LONGS.getOpaque(segment, offset + 8);
+            if (data != 0 && ((long) LONGS.getOpaque(segment, offset) ^ data) == key) {
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        long bucket = (key & bucketMask) * BUCKET_BYTES;
+        ByteBuffer segment = segments[(int) (bucket / SEGMENT_BYTES)];
+        int base = (int) (bucket % SEGMENT_BYTES);
+
+        // Reuse the entry for this key if there is one, otherwise replace the entry
+        // that is least worth keeping: empty first, then old, then shallow
+        int target = base;
+        int worst = Integer.MAX_VALUE;
+        for (int i = 0; i < ENTRIES_PER_BUCKET; i++) {
+            int offset = base + i * ENTRY_BYTES;
+            long data = (long) LONGS.getOpaque(segment, offset + 8);
+            if (data != 0 && ((long) LONGS.getOpaque(segment, offset) ^ data) == key) {
+                // Same position: keep a deeper result from this search, and keep the old move if we have none
+                if (depth(data) > depth && age(data) == age && bound != BOUND_EXACT) return;
+                if (move == 0) move = move(data);
+                target = offset;
+                break;
+            }
+            int value = data == 0 ? Integer.MIN_VALUE : depth(data) - 8 * ((age - age(data)) & AGE_MASK);
+            if (value < worst) {
+                worst = value;
+                target = offset;
+            }
+        }
+
+        long data = (move & 0x7FFFFL)
+                  | ((long) bound << BOUND_SHIFT)
+                  | ((long) age << AGE_SHIFT)
+                  | ((long) (depth & 0xFF) << DEPTH_SHIFT)
+                  | ((long) (score & 0xFFFF) << SCORE_SHIFT);
+        LONGS.setOpaque(segment, target, key ^ data);
+        LONGS.setOpaque(segment, target + 8, data);
+    }
+
+    // Permille of sampled entries written during the current search, for UCI hashfull.
+    // The sample is whole buckets spread evenly over the table, across all segments,
+    // since keys fill the buckets uniformly but not the entries within a bucket.
+    public int hashfull() {
+        long buckets = bucketMask + 1;
+        int sampled = (int) Math.min(HASHFULL_BUCKETS, buckets);
+        long stride = buckets / sampled;
+        int used = 0;
+        for (int i = 0; i < sampled; i++) {
+            long bucket = i * stride * BUCKET_BYTES;
+            ByteBuffer segment = segments[(int) (bucket / SEGMENT_BYTES)];
+            int base = (int) (bucket % SEGMENT_BYTES);
+            for (int j = 0; j < ENTRIES_PER_BUCKET; j++) {
+                long data = (long) LONGS.getOpaque(segment, base + j * ENTRY_BYTES + 8);
+                if (data != 0 && age(data) == age) used++;
+            }
+        }
+        return used * 1000 / (sampled * ENTRIES_PER_BUCKET);
+    }
+
+    public static int move(long data) {
+        return (int) (data & 0x7FFFF);
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 3;
+    }
+
+    public static int depth(long data) {
+        return (byte) (data >>> DEPTH_SHIFT);
+    }
+
+    public static int score(long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    private static int age(long data) {
+        return (int) (data >>> AGE_SHIFT) & AGE_MASK;
+    }
+}
@@ -0,0 +1,601 @@
+package chess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.*;
+
+public class UCIEngine {
+    private ChessBoard board;
+    private SearchEngine engine;
+    private AlphaBetaEngine alphaBetaEngine;
+    private MCTSEngine mctsEngine; // created on first use, its node arena is large
+    private MateSolver mateSolver; // likewise, for "go mate"
+    private Perft perft; // "go perft", on every core
+    private int perftHashMb; // table for "go perft", 0 for plain perft
+    private TranspositionTable transpositionTable;
+    private SearchOptions searchOptions;
+    private boolean debug = false;
+    
+    // The search runs on its own thread so this one keeps reading commands;
+    // searchLimits belongs to the running (or last) search and carries its stop flag
+    private Thread searchThread;
+    private SearchLimits searchLimits;
+    
+    private static final int DEFAULT_HASH_MB = 16;
+    private static final int MAX_HASH_MB = 65536;
+    private static final int MAX_THREADS = 512;
+    private static final int MAX_MOVE_OVERHEAD = 5000;
+    private static final int MAX_PERFT_HASH_MB = 65536;
+    
+    public UCIEngine() {
+        board = new ChessBoard();
+        transpositionTable = new TranspositionTable(DEFAULT_HASH_MB);
+        searchOptions = new SearchOptions();
+        alphaBetaEngine = new AlphaBetaEngine(transpositionTable, searchOptions);
+        engine = alphaBetaEngine;
+        // Set up starting position
+        board.setFromFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+    }
+    
+    public void run() throws IOException {
+        BufferedReader input = new BufferedReader(new InputStreamReader(System.in));
+        
+        String line;
+        while ((line = input.readLine()) != null) {
+            line = line.trim();
+            
+            if (line.isEmpty()) continue;
+            
+            String[] tokens = line.split("\\s+");
+            String command = tokens[0];
+            
+            switch (command) {
+                case "uci":
+                    handleUCI();
+                    break;
+                case "debug":
+                    handleDebug(tokens);
+                    break;
+                case "isready":
+                    handleIsReady();
+                    break;
+                case "setoption":
+                    stopSearch();
+                    handleSetOption(tokens);
+                    break;
+                case "register":
+                    handleRegister();
+                    break;
+                case "ucinewgame":
+                    stopSearch();
+                    handleUCINewGame();
+                    break;
+                case "position":
+                    stopSearch();
+                    handlePosition(tokens);
+                    break;
+                case "go":
+                    stopSearch();
+                    handleGo(tokens);
+                    break;
+                case "stop":
+                    handleStop();
+                    break;
+                case "ponderhit":
+                    handlePonderHit();
+                    break;
+                case "bench":
+                    stopSearch();
+                    handleBench(tokens);
+                    break;
+                case "quit":
+                    handleQuit();
+                    return;
+                default:
+                    if (debug) {
+                        UCIOutput.send("info string Unknown command: " + command);
+                    }
+                    break;
+            }
+        }
+    }
+    
+    private void handleUCI() {
+        UCIOutput.send("id name ChessEngine 1.0");
+        UCIOutput.send("id author YourName");
+        UCIOutput.send("option name Hash type spin default " + DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+        UCIOutput.send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+        UCIOutput.send("option name MultiPV type spin default 1 min 1 max " + AlphaBetaEngine.MAX_MULTI_PV);
+        UCIOutput.send("option name Ponder type check default false");
+        UCIOutput.send("option name SearchMode type combo default AlphaBeta var AlphaBeta var MCTS");
+        UCIOutput.send("option name NullMove type check default " + searchOptions.nullMove);
+        UCIOutput.send("option name LMR type check default " + searchOptions.lateMoveReductions);
+        UCIOutput.send("option name ReverseFutility type check default " + searchOptions.reverseFutility);
+        UCIOutput.send("option name Futility type check default " + searchOptions.futility);
+        UCIOutput.send("option name MoveOverhead type spin default " + searchOptions.moveOverhead + " min 0 max " + MAX_MOVE_OVERHEAD);
+        UCIOutput.send("option name TimeLog type string default <empty>");
+        UCIOutput.send("option name PerftHash type spin default 0 min 0 max " + MAX_PERFT_HASH_MB);
+        UCIOutput.send("uciok");
+    }
+    
+    private void handleDebug(String[] tokens) {
+        if (tokens.length > 1) {
+            debug = tokens[1].equals("on");
+        }
+    }
+    
+    private void handleIsReady() {
+        UCIOutput.send("readyok");
+    }
+    
+    private void handleSetOption(String[] tokens) {
+        // Format: setoption name <name> value <value>
+        StringBuilder name = new StringBuilder();
+        String value = null;
+        for (int i = 1; i < tokens.length; i++) {
+            if (tokens[i].equals("name")) continue;
+            if (tokens[i].equals("value")) {
+                // The value runs to the end of the line; a file name may contain spaces
+                if (i + 1 < tokens.length) value = String.join(" ", Arrays.copyOfRange(tokens, i + 1, tokens.length));
+                break;
+            }
+            if (name.length() > 0) name.append(" ");
+            name.append(tokens[i]);
+        }
+        
+        try {
+            switch (name.toString().toLowerCase()) {
+                case "hash":
+                    int hash = Integer.parseInt(value);
+                    if (hash < 1 || hash > MAX_HASH_MB) throw new IllegalArgumentException(value);
+                    transpositionTable.resize(hash);
+                    break;
+                case "threads":
+                    int threads = Integer.parseInt(value);
+                    if (threads < 1 || threads > MAX_THREADS) throw new IllegalArgumentException(value);
+                    searchOptions.threads = threads;
+                    break;
+                case "multipv":
+                    int multiPV = Integer.parseInt(value);
+                    if (multiPV < 1 || multiPV > AlphaBetaEngine.MAX_MULTI_PV) throw new IllegalArgumentException(value);
+                    searchOptions.multiPV = multiPV;
+                    break;
+                case "searchmode":
+                    if (value.equalsIgnoreCase("alphabeta")) {
+                        engine = alphaBetaEngine;
+                    } else if (value.equalsIgnoreCase("mcts")) {
+                        if (mctsEngine == null) mctsEngine = new MCTSEngine(searchOptions, MCTSEngine.DEFAULT_CAPACITY);
+                        engine = mctsEngine;
+                    } else {
+                        throw new IllegalArgumentException(value);
+                    }
+                    break;
+                case "ponder":
+                    // Pondering is driven by "go ponder"; the GUI only tells us whether it may happen
+                    parseCheck(value);
+                    break;
+                case "nullmove":
+                    searchOptions.nullMove = parseCheck(value);
+                    break;
+                case "lmr":
+                    searchOptions.lateMoveReductions = parseCheck(value);
+                    break;
+                case "reversefutility":
+                    searchOptions.reverseFutility = parseCheck(value);
+                    break;
+                case "futility":
+                    searchOptions.futility = parseCheck(value);
+                    break;
+                case "moveoverhead":
+                    int overhead = Integer.parseInt(value);
+                    if (overhead < 0 || overhead > MAX_MOVE_OVERHEAD) throw new IllegalArgumentException(value);
+                    searchOptions.moveOverhead = overhead;
+                    break;
+                case "timelog":
+                    searchOptions.timeLog = value == null || value.equals("<empty>") ? "" : value;
+                    break;
+                case "perfthash":
+                    int perftHash = Integer.parseInt(value);
+                    if (perftHash < 0 || perftHash > MAX_PERFT_HASH_MB) throw new IllegalArgumentException(value);
+                    if (perftHash != perftHashMb && perft != null) {
+                        perft.shutdown();
+                        perft = null; // rebuilt with the new table by the next "go perft"
+                    }
+                    perftHashMb = perftHash;
+                    break;
+                default:
+                    if (debug) {
+                        UCIOutput.send("info string Unknown option: " + name);
+                    }
+                    break;
+            }
+        } catch (IllegalArgumentException | NullPointerException e) {
+            UCIOutput.send("info string Invalid value for option " + name + ": " + value);
+        } catch (OutOfMemoryError e) {
+            // Direct memory is capped by -XX:MaxDirectMemorySize; keep the old table
+            UCIOutput.send("info string Could not allocate " + value + " MB for Hash");
+        }
+    }
+    
+    // Check options only accept the literal values "true" and "false"
+    private static boolean parseCheck(String value) {
+        if (value.equals("true")) return true;
+        if (value.equals("false")) return false;
+        throw new IllegalArgumentException(value);
+    }
+    
+    private void handleRegister() {
+        // For free engines, just ignore this
+    }
+    
+    // "bench [depth]": the fixed search of Bench, in the foreground; it leaves the
+    // engine's own table and options alone
+    private void handleBench(String[] tokens) {
+        try {
+            int depth = tokens.length > 1 ? Integer.parseInt(tokens[1]) : Bench.DEFAULT_DEPTH;
+            if (depth < 1 || depth > AlphaBetaEngine.MAX_DEPTH) throw new IllegalArgumentException(tokens[1]);
+            Bench.run(depth);
+        } catch (IllegalArgumentException e) {
+            UCIOutput.send("info string Invalid bench depth: " + tokens[1]);
+        }
+    }
+
+    private void handleUCINewGame() {
+        // Reset for new game
+        board = new ChessBoard();
+        board.setFromFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        transpositionTable.clear();
+        if (mctsEngine != null) mctsEngine.clear();
+    }
+    
+    private void handlePosition(String[] tokens) {
+        if (tokens.length < 2) return;
+        
+        if (tokens[1].equals("startpos")) {
+            board.setFromFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+            
+            // Apply moves if provided
+            int movesIndex = -1;
+            for (int i = 2; i < tokens.length; i++) {
+                if (tokens[i].equals("moves")) {
+                    movesIndex = i + 1;
+                    break;
+                }
+            }
+            
+            if (movesIndex != -1) {
+                for (int i = movesIndex; i < tokens.length; i++) {
+                    makeUCIMove(tokens[i]);
+                }
+            }
+        } else if (tokens[1].equals("fen")) {
+            // Extract FEN string
+            StringBuilder fenBuilder = new StringBuilder();
+            int movesIndex = -1;
+            
+            for (int i = 2; i < tokens.length; i++) {
+                if (tokens[i].equals("moves")) {
+                    movesIndex = i + 1;
+                    break;
+                }
+                if (i > 2) fenBuilder.append(" ");
+                fenBuilder.append(tokens[i]);
+            }
+            
+            board.setFromFEN(fenBuilder.toString());
+            
+            // Apply moves if provided
+            if (movesIndex != -1) {
+                for (int i = movesIndex; i < tokens.length; i++) {
+                    makeUCIMove(tokens[i]);
+                }
+            }
+        }
+    }
+    
+    private void makeUCIMove(String uciMove) {
+        // Convert UCI move (e.g., "e2e4", "e7e8q") to internal move format
+        if (uciMove.length() < 4) return;
+        
+        String fromSquare = uciMove.substring(0, 2);
+        String toSquare = uciMove.substring(2, 4);
+        
+        Position from = new Position(fromSquare);
+        Position to = new Position(toSquare);
+        
+        // Check for promotion
+        PieceType promotion = null;
+        if (uciMove.length() == 5) {
+            char promChar = uciMove.charAt(4);
+            switch (promChar) {
+                case 'q': promotion = PieceType.QUEEN; break;
+                case 'r': promotion = PieceType.ROOK; break;
+                case 'b': promotion = PieceType.BISHOP; break;
+                case 'n': promotion = PieceType.KNIGHT; break;
+            }
+        }
+        
+        // Find the matching legal move
+        Color currentColor = getCurrentPlayerFromBoard();
+        List<Move> legalMoves = board.getAllLegalMoves(currentColor);
+        
+        for (Move move : legalMoves) {
+            if (move.from.equals(from) && move.to.equals(to)) {
+                if (promotion == null || move.promotionPiece == promotion) {
+                    board.makeMove(move);
+                    return;
+                }
+            }
+        }
+        
+        if (debug) {
+            UCIOutput.send("info string Illegal move: " + uciMove);
+        }
+    }
+    
+    // The legal move in UCI notation as an int move, or 0
+    private int findLegalMove(String uciMove) {
+        int[] moves = new int[ChessBoard.MAX_MOVES];
+        int count = board.generateLegalMoves(board.getSideToMove(), moves);
+        for (int i = 0; i < count; i++) {
+            if (Move.toUCI(moves[i]).equals(uciMove)) return moves[i];
+        }
+        return 0;
+    }
+    
+    private Color getCurrentPlayerFromBoard() {
+        return board.getSideToMove();
+    }
+    
+    private void handleGo(String[] tokens) {
+        if (tokens.length > 1 && tokens[1].equals("perft")) {
+            String value = tokens.length > 2 ? tokens[2] : "";
+            try {
+                int depth = Integer.parseInt(value);
+                if (depth < 1 || depth > ChessBoard.MAX_PLY) throw new IllegalArgumentException(value);
+                handlePerft(depth);
+            } catch (IllegalArgumentException e) {
+                UCIOutput.send("info string Invalid perft depth: " + value);
+            }
+            return;
+        }
+        
+        // Parse go command parameters
+        SearchLimits limits = new SearchLimits();
+        boolean limitGiven = false;
+        boolean infinite = false;
+        
+        for (int i = 1; i < tokens.length; i++) {
+            switch (tokens[i]) {
+                case "wtime":
+                    if (i + 1 < tokens.length) limits.whiteTime = Long.parseLong(tokens[++i]);
+                    break;
+                case "btime":
+                    if (i + 1 < tokens.length) limits.blackTime = Long.parseLong(tokens[++i]);
+                    break;
+                case "winc":
+                    if (i + 1 < tokens.length) limits.whiteIncrement = Long.parseLong(tokens[++i]);
+                    break;
+                case "binc":
+                    if (i + 1 < tokens.length) limits.blackIncrement = Long.parseLong(tokens[++i]);
+                    break;
+                case "movestogo":
+                    if (i + 1 < tokens.length) limits.movesToGo = Integer.parseInt(tokens[++i]);
+                    break;
+                case "depth":
+                    if (i + 1 < tokens.length) limits.depth = Integer.parseInt(tokens[++i]);
+                    limitGiven = true;
+                    break;
+                case "nodes":
+                    if (i + 1 < tokens.length) limits.nodes = Long.parseLong(tokens[++i]);
+                    limitGiven = true;
+                    break;
+                case "movetime":
+                    if (i + 1 < tokens.length) limits.moveTime = Long.parseLong(tokens[++i]);
+                    break;
+                case "mate":
+                    if (i + 1 < tokens.length) limits.mate = Integer.parseInt(tokens[++i]);
+                    break;
+                case "infinite":
+                    infinite = true;
+                    break;
+                case "ponder":
+                    limits.ponder.set(true);
+                    break;
+                case "searchmoves":
+                    // Moves run until the next keyword; unknown or illegal ones are dropped
+                    List<Integer> moves = new ArrayList<>();
+                    while (i + 1 < tokens.length && tokens[i + 1].matches("[a-h][1-8][a-h][1-8][qrbn]?")) {
+                        int move = findLegalMove(tokens[++i]);
+                        if (move != 0) moves.add(move);
+                    }
+                    if (!moves.isEmpty()) limits.searchMoves = moves.stream().mapToInt(Integer::intValue).toArray();
+                    break;
+            }
+        }
+        
+        boolean timed = limits.moveTime > 0
+            || (board.getSideToMove() == Color.WHITE ? limits.whiteTime : limits.blackTime) > 0;
+        if (infinite || (timed && !limitGiven)) {
+            // Search until "stop" or the clock runs out; MCTS counts playouts rather than depth
+            limits.depth = AlphaBetaEngine.MAX_DEPTH;
+            limits.nodes = Long.MAX_VALUE;
+        }
+        if (infinite) {
+            // The GUI ends an infinite search, not the clock
+            limits.whiteTime = limits.blackTime = limits.moveTime = 0;
+        }
+        
+        boolean waitForStop = infinite;
+        searchLimits = limits;
+        searchThread = new Thread(() -> search(limits, waitForStop), "search");
+        searchThread.start();
+    }
+    
+    // "go perft N": node counts below each legal move, then the total. Runs on the
+    // search thread so "stop" and "isready" still work; there is no bestmove.
+    // With PerftHash set it counts leaves in bulk and reuses subtree counts.
+    private void handlePerft(int depth) {
+        if (perft == null) {
+            PerftTable table = perftHashMb > 0 ? new PerftTable(perftHashMb) : null;
+            perft = new Perft(Runtime.getRuntime().availableProcessors(), Perft.DEFAULT_SPLIT_PLIES, table);
+        }
+        SearchLimits limits = new SearchLimits();
+        searchLimits = limits;
+        searchThread = new Thread(() -> {
+            int[] moves = new int[ChessBoard.MAX_MOVES];
+            long start = System.nanoTime();
+            long[] nodes = perft.divide(board, depth, moves, limits.stop);
+            long elapsed = System.nanoTime() - start;
+            if (limits.stop.get()) {
+                UCIOutput.send("info string perft stopped");
+                return;
+            }
+            long total = 0;
+            for (int i = 0; i < nodes.length; i++) {
+                UCIOutput.send(Move.toUCI(moves[i]) + ": " + nodes[i]);
+                total += nodes[i];
+            }
+            UCIOutput.send("");
+            UCIOutput.send("info nodes " + total + " time " + elapsed / 1_000_000
+                + " nps " + total * 1_000_000_000L / Math.max(1, elapsed));
+            PerftTable table = perft.getTable();
+            if (table != null) {
+                UCIOutput.send(String.format("info string perft hash hits %d of %d probes (%.1f%%)",
+                    table.getHits(), table.getProbes(), 100.0 * table.getHits() / Math.max(1, table.getProbes())));
+                table.resetStatistics();
+            }
+            UCIOutput.send("Nodes searched: " + total);
+        }, "perft");
+        searchThread.start();
+    }
+    
+    // Runs on the search thread
+    private void search(SearchLimits limits, boolean waitForStop) {
+        Color currentColor = getCurrentPlayerFromBoard();
+        Move bestMove;
+        Move ponderMove;
+        int[] mateLine = limits.mate > 0 ? solveMate(limits) : null;
+        if (mateLine != null) {
+            bestMove = new Move(mateLine[0]);
+            ponderMove = mateLine.length > 1 ? new Move(mateLine[1]) : null;
+        } else {
+            // No mate proven: still answer with the normal search's move
+            bestMove = engine.getBestMove(board, currentColor, limits);
+            ponderMove = engine.getPonderMove();
+        }
+        
+        // An infinite or ponder search may not send bestmove before the GUI says
+        // stop (or, when pondering, ponderhit)
+        if (waitForStop || limits.ponder.get()) {
+            UCIOutput.flush(); // nothing polls while we wait, so send the last info lines now
+            synchronized (limits) {
+                while (!limits.stop.get() && (waitForStop || limits.ponder.get())) {
+                    try {
+                        limits.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+        }
+        
+        if (bestMove != null) {
+            String uciMove = moveToUCI(bestMove);
+            if (ponderMove != null) uciMove += " ponder " + moveToUCI(ponderMove);
+            UCIOutput.send("bestmove " + uciMove);
+        } else {
+            // No legal moves
+            UCIOutput.send("bestmove (none)");
+        }
+    }
+    
+    // Runs the mate solver and reports the mate it found, or that there was none
+    private int[] solveMate(SearchLimits limits) {
+        if (mateSolver == null) mateSolver = new MateSolver(MateSolver.DEFAULT_TABLE_MB);
+        long start = System.nanoTime();
+        int[] line = mateSolver.solve(board, limits.mate, limits, searchOptions.moveOverhead);
+        long elapsed = System.nanoTime() - start;
+        if (line == null) {
+            UCIOutput.send("info string no mate in " + limits.mate + " found");
+            return null;
+        }
+        StringBuilder info = new StringBuilder("info depth ").append(line.length)
+            .append(" score mate ").append((line.length + 1) / 2)
+            .append(" nodes ").append(mateSolver.getNodes())
+            .append(" time ").append(elapsed / 1_000_000)
+            .append(" pv");
+        for (int move : line) {
+            info.append(' ').append(Move.toUCI(move));
+        }
+        UCIOutput.send(info.toString());
+        return line;
+    }
+    
+    private String moveToUCI(Move move) {
+        String uciMove = move.from.toNotation() + move.to.toNotation();
+        
+        // Add promotion piece if applicable
+        if (move.promotionPiece != null) {
+            switch (move.promotionPiece) {
+                case QUEEN: uciMove += "q"; break;
+                case ROOK: uciMove += "r"; break;
+                case BISHOP: uciMove += "b"; break;
+                case KNIGHT: uciMove += "n"; break;
+            }
+        }
+        
+        return uciMove;
+    }
+    
+    private void handleStop() {
+        // The search thread sends bestmove for the best move found so far
+        SearchLimits limits = searchLimits;
+        if (limits == null) return;
+        synchronized (limits) {
+            limits.stop.set(true);
+            limits.notifyAll();
+        }
+    }
+    
+    // Stops a running search and waits until it has sent bestmove
+    private void stopSearch() {
+        if (searchThread == null) return;
+        handleStop();
+        try {
+            searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+    }
+    
+    private void handlePonderHit() {
+        // The opponent played the expected move: the running search carries on with
+        // its tree and hash table, and its time manager starts the clock now
+        SearchLimits limits = searchLimits;
+        if (limits == null) return;
+        synchronized (limits) {
+            limits.ponder.set(false);
+            limits.notifyAll();
+        }
+    }
+    
+    private void handleQuit() {
+        // Clean shutdown
+        stopSearch();
+        System.exit(0);
+    }
+    
+    public static void main(String[] args) throws IOException {
+        UCIEngine engine = new UCIEngine();
+        if (args.length > 0 && args[0].equals("bench")) {
+            // Command-line bench for build scripts: runs and exits
+            engine.handleBench(args);
+            return;
+        }
+        engine.run();
+    }
+}
\ No newline at end of file
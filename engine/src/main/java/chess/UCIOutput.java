@@ -0,0 +1,68 @@
+package chess;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+// Everything the engine says to the GUI goes through here, from the input thread
+// and the search threads alike. Replies (uciok, readyok, bestmove) are flushed at
+// once. Search info lines are buffered and flushed at most every INFO_INTERVAL_MS,
+// so a burst of shallow iterations costs one write; the search calls poll() from
+// its periodic stop check so a buffered line never waits long, and flush() once it
+// has nothing more to say.
+final class UCIOutput {
+    private static final long INFO_INTERVAL_MS = 50;
+
+    private static final Writer OUT = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+    private static volatile boolean pending;
+    private static long lastFlush;
+
+    private UCIOutput() {}
+
+    // Writes a line and flushes it together with any buffered info
+    public static synchronized void send(String line) {
+        write(line);
+        flush();
+    }
+
+    // Writes a search info line, flushed when the interval since the last flush has passed
+    public static synchronized void info(String line) {
+        write(line);
+        pending = true;
+        if (System.nanoTime() - lastFlush >= INFO_INTERVAL_MS * 1_000_000) {
+            flush();
+        }
+    }
+
+    // Flushes buffered info whose interval has run out; cheap when there is none
+    public static void poll() {
+        if (pending) {
+            synchronized (UCIOutput.class) {
+                if (pending && System.nanoTime() - lastFlush >= INFO_INTERVAL_MS * 1_000_000) {
+                    flush();
+                }
+            }
+        }
+    }
+
+    private static void write(String line) {
+        try {
+            OUT.write(line);
+            OUT.write('\n');
+        } catch (IOException e) {
+            // The GUI has gone away; nothing useful left to do with output
+        }
+    }
+
+    // Flushes buffered info now, e.g. before a finished search waits for stop
+    public static synchronized void flush() {
+        try {
+            OUT.flush();
+        } catch (IOException e) {
+            // As above
+        }
+        pending = false;
+        lastFlush = System.nanoTime();
+    }
+}
@@ -0,0 +1,113 @@
+package chess;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+// Worker process for the Coordinator: connects to it on a loopback port, then runs
+// the tasks it is sent one at a time until told to quit or the socket closes.
+//
+// Protocol, big endian over the socket (DataInput/DataOutput):
+//   POSITION  byte 1, UTF fen                  sets the position tasks start from
+//   PERFT     byte 2, int id, byte depth, byte n, n x int move
+//                                              perft below the position after the moves
+//   SEARCH    byte 3, int id, byte depth       alpha-beta search of the position
+//   QUIT      byte 4
+// Every task is answered with int id, long nodes, int move, int score (20 bytes);
+// move and score are 0 for perft.
+// Usage: java chess.Worker <port> [hashMb]
+class Worker {
+    static final byte POSITION = 1;
+    static final byte PERFT = 2;
+    static final byte SEARCH = 3;
+    static final byte QUIT = 4;
+
+    private final ChessBoard board = new ChessBoard();
+    private final PerftTable perftTable;
+    private final int hashMb;
+    private AlphaBetaEngine engine; // created by the first search
+    private String fen = "";
+
+    Worker(int hashMb) {
+        this.hashMb = hashMb;
+        this.perftTable = hashMb > 0 ? new PerftTable(hashMb) : null;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        int hashMb = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            new Worker(hashMb).serve(in, out);
+        } catch (EOFException e) {
+            // The coordinator went away; nothing left to do
+        }
+    }
+
+    private void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        while (true) {
+            byte type = in.readByte();
+            switch (type) {
+                case POSITION:
+                    fen = in.readUTF();
+                    break;
+                case PERFT: {
+                    int id = in.readInt();
+                    int depth = in.readByte();
+                    int length = in.readByte();
+                    board.setFromFEN(fen);
+                    for (int i = 0; i < length; i++) {
+                        board.makeMove(in.readInt());
+                    }
+                    long nodes = board.perftBulk(depth, perftTable);
+                    reply(out, id, nodes, 0, 0);
+                    break;
+                }
+                case SEARCH: {
+                    int id = in.readInt();
+                    int depth = in.readByte();
+                    board.setFromFEN(fen);
+                    if (engine == null) {
+                        SearchOptions options = new SearchOptions();
+                        options.printInfo = false;
+                        engine = new AlphaBetaEngine(new TranspositionTable(Math.max(1, hashMb)), options);
+                    }
+                    SearchLimits limits = new SearchLimits();
+                    limits.depth = depth;
+                    Move best = engine.getBestMove(board, board.getSideToMove(), limits);
+                    int move = best == null ? 0 : findLegalMove(best.toUCI());
+                    reply(out, id, engine.getNodes(), move, engine.getScore());
+                    break;
+                }
+                case QUIT:
+                    return;
+                default:
+                    throw new IOException("Unknown message " + type);
+            }
+        }
+    }
+
+    private int findLegalMove(String uciMove) {
+        int[] moves = new int[ChessBoard.MAX_MOVES];
+        int count = board.generateLegalMoves(board.getSideToMove(), moves);
+        for (int i = 0; i < count; i++) {
+            if (Move.toUCI(moves[i]).equals(uciMove)) return moves[i];
+        }
+        return 0;
+    }
+
+    private static void reply(DataOutputStream out, int id, long nodes, int move, int score) throws IOException {
+        out.writeInt(id);
+        out.writeLong(nodes);
+        out.writeInt(move);
+        out.writeInt(score);
+        out.flush();
+    }
+}
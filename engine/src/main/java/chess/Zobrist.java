@@ -0,0 +1,35 @@
+package chess;
+
+import java.util.Random;
+
+// Random 64-bit keys for Zobrist position hashing. ChessBoard XORs them in and
+// out as pieces move; the fixed seed keeps keys stable between runs.
+final class Zobrist {
+    static final long[][] PIECES = new long[12][64]; // [color * 6 + piece type][square]
+    static final long[] CASTLING = new long[16]; // [castling rights]
+    static final long[] EN_PASSANT_FILE = new long[8];
+    static final long BLACK_TO_MOVE;
+
+    static {
+        Random random = new Random(0x2B1D_5EEDL);
+        for (int piece = 0; piece < 12; piece++) {
+            for (int sq = 0; sq < 64; sq++) {
+                PIECES[piece][sq] = random.nextLong();
+            }
+        }
+        // Rights are combined by XOR so that clearing one right is a single update
+        long[] single = new long[4];
+        for (int i = 0; i < 4; i++) single[i] = random.nextLong();
+        for (int rights = 0; rights < 16; rights++) {
+            for (int i = 0; i < 4; i++) {
+                if ((rights & (1 << i)) != 0) CASTLING[rights] ^= single[i];
+            }
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {}
+}
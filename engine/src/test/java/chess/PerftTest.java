@@ -0,0 +1,47 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+// Move generator regression: the standard perft positions at depths that run in
+// seconds. Surefire runs with -ea, so every makeMove and undoMove on the way also
+// checks the incremental Zobrist key and evaluation terms against a full recompute.
+class PerftTest {
+
+    @Test
+    void assertionsAreEnabled() {
+        boolean enabled = false;
+        assert enabled = true;
+        assertTrue(enabled, "run the tests with -ea");
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1; 4; 197281",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1; 3; 97862",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1; 5; 674624",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1; 4; 422333",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8; 3; 62379",
+    })
+    void perft(String fen, int depth, long expected) {
+        ChessBoard board = new ChessBoard();
+        board.setFromFEN(fen);
+        assertEquals(expected, board.perft(board.getSideToMove(), depth));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1; 5; 4865609",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1; 4; 4085603",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8; 4; 2103487",
+    })
+    void perftBulk(String fen, int depth, long expected) {
+        ChessBoard board = new ChessBoard();
+        board.setFromFEN(fen);
+        assertEquals(expected, board.perftBulk(depth, new PerftTable(16)));
+    }
+}